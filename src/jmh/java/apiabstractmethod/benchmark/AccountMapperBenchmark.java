@@ -0,0 +1,30 @@
+package apiabstractmethod.benchmark;
+
+import apiabstractmethod.mapper.AccountMapper;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.request.AccountRequest;
+import apiabstractmethod.response.AccountResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountMapperBenchmark {
+
+    private final AccountMapper accountMapper = new AccountMapper();
+    private final AccountRequest request = new AccountRequest("ACC123456", "savings", new BigDecimal("1000.00"), "John Doe");
+    private final AccountEntity entity = new AccountEntity(1L, "ACC123456", "savings", new BigDecimal("1500.00"), "John Doe", 3L, 0L);
+
+    @Benchmark
+    public AccountEntity toEntity() {
+        return accountMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public AccountResponse toResponse() {
+        return accountMapper.toResponse(entity);
+    }
+}
@@ -0,0 +1,63 @@
+package apiabstractmethod.benchmark;
+
+import apiabstractmethod.ApiAbstractMethodApplication;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.request.AccountRequest;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import apiabstractmethod.mapper.AccountMapper;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionService.processTransaction against the embedded H2 database, without the HTTP layer.
+ * Every thread works on its own account, so the numbers exclude row contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EndToEndBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ApiAbstractMethodApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+
+        private TransactionRequest deposit;
+
+        @Setup
+        public void setUp(EndToEndBenchmark benchmark) {
+            String accountNumber = "BENCH-" + Thread.currentThread().getId();
+            AccountMapper accountMapper = benchmark.context.getBean(AccountMapper.class);
+            benchmark.context.getBean(AccountRepository.class).save(accountMapper.toEntity(
+                    new AccountRequest(accountNumber, "checking", new BigDecimal("1000.00"), "Benchmark")));
+            deposit = new TransactionRequest(TransactionType.DEPOSIT, accountNumber, new BigDecimal("1.00"));
+        }
+    }
+
+    @Benchmark
+    public TransactionResponse deposit(ThreadAccount account) {
+        return transactionService.processTransaction(account.deposit);
+    }
+}
@@ -0,0 +1,60 @@
+package apiabstractmethod.benchmark;
+
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.service.TransactionFactory;
+import apiabstractmethod.service.impl.DepositTransactionFactory;
+import apiabstractmethod.service.impl.TransferTransactionFactory;
+import apiabstractmethod.service.impl.WithdrawalTransactionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Factory resolution for a request. {@code stringKeyLookup} is the former per-request path:
+ * upper-casing the requested type and looking it up in a map keyed by type name.
+ * {@code parseAndIndex} resolves the raw type to a {@link TransactionType}, as done once while
+ * the request body is deserialized, and indexes the factory table by its ordinal;
+ * {@code indexLookup} is the indexing alone, which is all TransactionServiceImpl now does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FactoryLookupBenchmark {
+
+    @Param({"deposit", "WITHDRAWAL"})
+    private String transactionType;
+
+    private Map<String, TransactionFactory> factoriesByName;
+    private TransactionFactory[] factoriesByType;
+    private TransactionType resolvedType;
+
+    @Setup
+    public void setUp() {
+        List<TransactionFactory> factories = List.of(
+                new DepositTransactionFactory(), new WithdrawalTransactionFactory(), new TransferTransactionFactory());
+        factoriesByName = factories.stream()
+                .collect(Collectors.toMap(factory -> factory.getTransactionType().name(), Function.identity()));
+        factoriesByType = new TransactionFactory[TransactionType.values().length];
+        factories.forEach(factory -> factoriesByType[factory.getTransactionType().ordinal()] = factory);
+        resolvedType = TransactionType.fromValue(transactionType);
+    }
+
+    @Benchmark
+    public TransactionFactory stringKeyLookup() {
+        return factoriesByName.get(transactionType.toUpperCase());
+    }
+
+    @Benchmark
+    public TransactionFactory parseAndIndex() {
+        return factoriesByType[TransactionType.fromValue(transactionType).ordinal()];
+    }
+
+    @Benchmark
+    public TransactionFactory indexLookup() {
+        return factoriesByType[resolvedType.ordinal()];
+    }
+}
@@ -0,0 +1,73 @@
+package apiabstractmethod.benchmark;
+
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the transaction DTOs with the same Jackson setup Spring MVC uses
+ * for the request and response bodies of POST /api/transactions, next to the same bodies as
+ * CBOR, which is what {@code Accept: application/cbor} callers get.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonBenchmark {
+
+    private final byte[] requestJson = """
+            {"transactionType":"deposit","accountNumber":"ACC123456","amount":100.00}"""
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final TransactionResponse response = new TransactionResponse(
+            "DEPOSIT", "ACC123456", new BigDecimal("100.00"), new BigDecimal("500.00"),
+            "SUCCESS", "Transaction processed successfully");
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private byte[] requestCbor;
+    private ObjectReader cborRequestReader;
+    private ObjectWriter cborResponseWriter;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        requestReader = objectMapper.readerFor(TransactionRequest.class);
+        responseWriter = objectMapper.writerFor(TransactionResponse.class);
+
+        ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+        requestCbor = cborMapper.writeValueAsBytes(
+                new TransactionRequest(TransactionType.DEPOSIT, "ACC123456", new BigDecimal("100.00")));
+        cborRequestReader = cborMapper.readerFor(TransactionRequest.class);
+        cborResponseWriter = cborMapper.writerFor(TransactionResponse.class);
+    }
+
+    @Benchmark
+    public TransactionRequest readRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public TransactionRequest readRequestCbor() throws IOException {
+        return cborRequestReader.readValue(requestCbor);
+    }
+
+    @Benchmark
+    public byte[] writeResponseCbor() throws IOException {
+        return cborResponseWriter.writeValueAsBytes(response);
+    }
+}
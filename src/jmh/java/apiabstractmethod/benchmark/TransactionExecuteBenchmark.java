@@ -0,0 +1,65 @@
+package apiabstractmethod.benchmark;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.service.TransactionFactory;
+import apiabstractmethod.service.impl.DepositTransactionFactory;
+import apiabstractmethod.service.impl.WithdrawalTransactionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation and execution of deposit and withdrawal transactions, including their BigDecimal
+ * comparisons and arithmetic, against an account held in memory, compared with the same rules
+ * applied directly by the stateless factory and to balances in long minor units.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionExecuteBenchmark {
+
+    private final TransactionFactory depositFactory = new DepositTransactionFactory();
+    private final TransactionFactory withdrawalFactory = new WithdrawalTransactionFactory();
+    private final BigDecimal amount = new BigDecimal("10.25");
+    private long amountMinorUnits = 1025L;
+
+    private AccountEntity account;
+    private long balanceMinorUnits;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = new AccountEntity(1L, "ACC123456", "checking", new BigDecimal("1000000000000000.00"), "John Doe", 0L, 0L);
+        balanceMinorUnits = 100000000000L;
+    }
+
+    @Benchmark
+    public AccountEntity deposit() {
+        return depositFactory.createTransaction(amount, account).execute();
+    }
+
+    @Benchmark
+    public AccountEntity withdrawal() {
+        return withdrawalFactory.createTransaction(amount, account).execute();
+    }
+
+    @Benchmark
+    public AccountEntity depositStateless() {
+        return depositFactory.execute(amount, account);
+    }
+
+    @Benchmark
+    public AccountEntity withdrawalStateless() {
+        return withdrawalFactory.execute(amount, account);
+    }
+
+    @Benchmark
+    public long depositMinorUnits() {
+        return depositFactory.apply(balanceMinorUnits, amountMinorUnits);
+    }
+
+    @Benchmark
+    public long withdrawalMinorUnits() {
+        return withdrawalFactory.apply(balanceMinorUnits, amountMinorUnits);
+    }
+}
@@ -0,0 +1,73 @@
+package apiabstractmethod.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties.
+ * The operation mix is a list of {@code type:weight} pairs over deposit, withdrawal and read.
+ * A {@code rate} of 0 runs every client closed-loop, back to back; a positive rate paces the
+ * clients to that many operations per second in total.
+ */
+record LoadTestOptions(String url, int accounts, BigDecimal initialBalance, BigDecimal amount,
+                       int clients, Duration warmup, Duration duration, Duration reportInterval,
+                       double rate, double skew, int[] mix) {
+
+    static LoadTestOptions fromSystemProperties() {
+        LoadTestOptions options = new LoadTestOptions(
+                System.getProperty("loadtest.url", ""),
+                Integer.getInteger("loadtest.accounts", 1000),
+                new BigDecimal(System.getProperty("loadtest.initial-balance", "1000.00")),
+                new BigDecimal(System.getProperty("loadtest.amount", "1.00")),
+                Integer.getInteger("loadtest.clients", 64),
+                duration("loadtest.warmup", "10s"),
+                duration("loadtest.duration", "60s"),
+                duration("loadtest.report-interval", "10s"),
+                Double.parseDouble(System.getProperty("loadtest.rate", "0")),
+                Double.parseDouble(System.getProperty("loadtest.skew", "1.0")),
+                mix(System.getProperty("loadtest.mix", "deposit:45,withdrawal:45,read:10")));
+        if (options.accounts < 1 || options.clients < 1 || options.amount.signum() <= 0
+                || options.initialBalance.signum() <= 0 || options.skew < 0 || options.rate < 0) {
+            throw new IllegalArgumentException("Invalid load test options: " + options);
+        }
+        return options;
+    }
+
+    boolean embedded() {
+        return url.isBlank();
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    private static int[] mix(String value) {
+        int[] weights = new int[Operation.values().length];
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            weights[Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)).ordinal()] =
+                    Integer.parseInt(parts[1].trim());
+        }
+        int total = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Invalid loadtest.mix: " + value);
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Invalid loadtest.mix: " + value);
+        }
+        return weights;
+    }
+
+    enum Operation {
+        DEPOSIT, WITHDRAWAL, READ
+    }
+}
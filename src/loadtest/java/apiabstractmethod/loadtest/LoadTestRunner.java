@@ -0,0 +1,407 @@
+package apiabstractmethod.loadtest;
+
+import apiabstractmethod.ApiAbstractMethodApplication;
+import apiabstractmethod.loadtest.LoadTestOptions.Operation;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * Load and soak test over HTTP. Seeds accounts through {@code POST /api/accounts}, then drives a
+ * weighted mix of deposits, withdrawals and reads against Zipf-distributed accounts from
+ * {@code loadtest.clients} threads, printing throughput and latency percentiles every report
+ * interval and per operation at the end.
+ *
+ * <p>Every deposit and withdrawal the service acknowledges is counted against its account. After
+ * the run each account balance is read back and compared with its initial balance plus the
+ * acknowledged operations, so a lost or duplicated update fails the run with exit code 1.
+ * Accounts that saw a 5xx or a transport error have an unknown outcome and are left out of the check.
+ *
+ * <p>Without {@code loadtest.url} the application is started in this JVM on a random port with the
+ * embedded H2 database, and the program arguments are passed to it (for example
+ * {@code --bank.balance-engine.enabled=true}). Point {@code loadtest.url} at a running instance to
+ * keep the client load off the server's CPUs when sizing pods.
+ */
+public class LoadTestRunner {
+
+    private static final String[] EMBEDDED_DEFAULTS = {
+            "--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN"};
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    private final ZipfSampler sampler;
+    private final String[] accountNumbers;
+    private final int mixTotal;
+    private final AtomicLongArray applied;
+    private final AtomicLongArray unknown;
+    private final Recorder[] recorders = new Recorder[Operation.values().length];
+    private final LongAdder[][] outcomes = new LongAdder[Operation.values().length][Outcome.values().length];
+    private volatile boolean running = true;
+    private volatile boolean recording;
+
+    LoadTestRunner(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.sampler = new ZipfSampler(options.accounts(), options.skew());
+        String prefix = "LT" + Long.toString(System.currentTimeMillis(), 36).toUpperCase() + "-";
+        this.accountNumbers = IntStream.range(0, options.accounts())
+                .mapToObj(i -> prefix + i)
+                .toArray(String[]::new);
+        this.mixTotal = IntStream.of(options.mix()).sum();
+        this.applied = new AtomicLongArray(options.accounts());
+        this.unknown = new AtomicLongArray(options.accounts());
+        for (int op = 0; op < recorders.length; op++) {
+            recorders[op] = new Recorder(3);
+            for (int outcome = 0; outcome < Outcome.values().length; outcome++) {
+                outcomes[op][outcome] = new LongAdder();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.url();
+        if (options.embedded()) {
+            String[] applicationArgs = new String[EMBEDDED_DEFAULTS.length + args.length];
+            System.arraycopy(EMBEDDED_DEFAULTS, 0, applicationArgs, 0, EMBEDDED_DEFAULTS.length);
+            System.arraycopy(args, 0, applicationArgs, EMBEDDED_DEFAULTS.length, args.length);
+            context = SpringApplication.run(ApiAbstractMethodApplication.class, applicationArgs);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        boolean consistent;
+        try {
+            consistent = new LoadTestRunner(options, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(consistent ? 0 : 1);
+    }
+
+    boolean run() throws Exception {
+        int hot = Math.max(1, options.accounts() / 100);
+        System.out.printf("Target %s, %d accounts, %d clients, rate %s, mix %s%n", baseUrl, options.accounts(),
+                options.clients(), options.rate() > 0 ? options.rate() + " ops/s" : "unthrottled", mixDescription());
+        System.out.printf("Skew %.2f: the hottest %d account(s) receive %.1f%% of operations%n",
+                options.skew(), hot, sampler.share(hot) * 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.clients());
+        try {
+            seed(executor);
+            drive(executor);
+            return verify(executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void seed(ExecutorService executor) throws Exception {
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int client = 0; client < options.clients(); client++) {
+            int first = client;
+            futures.add(executor.submit(() -> {
+                for (int i = first; i < accountNumbers.length; i += options.clients()) {
+                    String body = "{\"accountNumber\":\"" + accountNumbers[i] + "\",\"accountType\":\"checking\","
+                            + "\"initialBalance\":" + options.initialBalance().toPlainString() + ",\"ownerName\":\"Load Test\"}";
+                    HttpResponse<String> response = send(post("/api/accounts", body));
+                    if (response.statusCode() != 201) {
+                        throw new IllegalStateException("Seeding " + accountNumbers[i] + " failed with "
+                                + response.statusCode() + ": " + response.body());
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        System.out.printf("Seeded %d accounts in %d ms%n", accountNumbers.length,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void drive(ExecutorService executor) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int client = 0; client < options.clients(); client++) {
+            futures.add(executor.submit(() -> {
+                clientLoop();
+                return null;
+            }));
+        }
+
+        System.out.printf("Warming up for %s%n", options.warmup());
+        Thread.sleep(options.warmup().toMillis());
+        for (Recorder recorder : recorders) {
+            recorder.reset();
+        }
+        recording = true;
+
+        Histogram[] totals = new Histogram[recorders.length];
+        for (int op = 0; op < totals.length; op++) {
+            totals[op] = new Histogram(3);
+        }
+        long start = System.nanoTime();
+        long end = start + options.duration().toNanos();
+        long intervalStart = start;
+        while (System.nanoTime() < end) {
+            long wake = Math.min(end, intervalStart + options.reportInterval().toNanos());
+            TimeUnit.NANOSECONDS.sleep(wake - System.nanoTime());
+            if (wake == end) {
+                recording = false;
+            }
+            long now = System.nanoTime();
+            Histogram interval = new Histogram(3);
+            for (int op = 0; op < recorders.length; op++) {
+                Histogram histogram = recorders[op].getIntervalHistogram();
+                totals[op].add(histogram);
+                interval.add(histogram);
+            }
+            System.out.printf("%6ds  %9.0f ops/s  p50 %8s  p99 %8s  max %8s  failed %d%n",
+                    TimeUnit.NANOSECONDS.toSeconds(now - start),
+                    interval.getTotalCount() / seconds(now - intervalStart),
+                    millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)),
+                    millis(interval.getMaxValue()), count(Outcome.FAILED));
+            intervalStart = now;
+        }
+        running = false;
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        report(totals, seconds(System.nanoTime() - start));
+    }
+
+    private void clientLoop() {
+        long pace = options.rate() > 0 ? (long) (options.clients() * 1_000_000_000L / options.rate()) : 0;
+        long next = System.nanoTime() + (pace > 0 ? ThreadLocalRandom.current().nextLong(pace) : 0);
+        while (running) {
+            long intended;
+            if (pace > 0) {
+                intended = next;
+                next += pace;
+                long delay;
+                while ((delay = intended - System.nanoTime()) > 0 && running) {
+                    LockSupport.parkNanos(delay);
+                }
+                if (!running) {
+                    break;
+                }
+            } else {
+                intended = System.nanoTime();
+            }
+            Operation operation = nextOperation();
+            int account = sampler.next();
+            Outcome outcome = execute(operation, account);
+            // Measured from the intended start, so a stalled server is not hidden by paced clients waiting on it
+            long latency = System.nanoTime() - intended;
+            if (recording) {
+                recorders[operation.ordinal()].recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+                outcomes[operation.ordinal()][outcome.ordinal()].increment();
+            }
+        }
+    }
+
+    private Operation nextOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(mixTotal);
+        for (Operation operation : Operation.values()) {
+            roll -= options.mix()[operation.ordinal()];
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    private Outcome execute(Operation operation, int account) {
+        HttpRequest request = switch (operation) {
+            case READ -> get("/api/accounts/" + accountNumbers[account]);
+            case DEPOSIT, WITHDRAWAL -> post("/api/transactions", "{\"transactionType\":\"" + operation
+                    + "\",\"accountNumber\":\"" + accountNumbers[account] + "\",\"amount\":"
+                    + options.amount().toPlainString() + "}");
+        };
+        Outcome outcome;
+        try {
+            outcome = Outcome.of(send(request).statusCode());
+        } catch (IOException e) {
+            outcome = Outcome.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = Outcome.FAILED;
+        }
+        if (operation != Operation.READ) {
+            if (outcome == Outcome.OK) {
+                applied.addAndGet(account, operation == Operation.DEPOSIT ? 1 : -1);
+            } else if (outcome == Outcome.FAILED) {
+                unknown.incrementAndGet(account);
+            }
+        }
+        return outcome;
+    }
+
+    private boolean verify(ExecutorService executor) throws Exception {
+        List<Future<BigDecimal>> balances = new ArrayList<>(accountNumbers.length);
+        for (String accountNumber : accountNumbers) {
+            balances.add(executor.submit(() -> {
+                HttpResponse<String> response = send(get("/api/accounts/" + accountNumber));
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Reading " + accountNumber + " failed with "
+                            + response.statusCode() + ": " + response.body());
+                }
+                return objectMapper.readTree(response.body()).get("balance").decimalValue();
+            }));
+        }
+        int checked = 0;
+        int mismatched = 0;
+        BigDecimal expectedTotal = BigDecimal.ZERO;
+        BigDecimal actualTotal = BigDecimal.ZERO;
+        for (int i = 0; i < accountNumbers.length; i++) {
+            BigDecimal actual = balances.get(i).get();
+            if (unknown.get(i) > 0) {
+                continue;
+            }
+            BigDecimal expected = options.initialBalance().add(options.amount().multiply(BigDecimal.valueOf(applied.get(i))));
+            checked++;
+            expectedTotal = expectedTotal.add(expected);
+            actualTotal = actualTotal.add(actual);
+            if (expected.compareTo(actual) != 0) {
+                if (mismatched++ < 10) {
+                    System.out.printf("  %s: expected %s, found %s%n", accountNumbers[i], expected, actual);
+                }
+            }
+        }
+        int skipped = accountNumbers.length - checked;
+        if (mismatched == 0) {
+            System.out.printf("Consistency OK: %d accounts hold %s as expected (%d skipped with unknown outcomes)%n",
+                    checked, actualTotal, skipped);
+        } else {
+            System.out.printf("Consistency FAILED: %d of %d accounts differ, expected total %s, found %s "
+                    + "(%d skipped with unknown outcomes)%n", mismatched, checked, expectedTotal, actualTotal, skipped);
+        }
+        return mismatched == 0;
+    }
+
+    private void report(Histogram[] totals, double elapsedSeconds) {
+        Histogram all = new Histogram(3);
+        System.out.printf("%n%-10s %10s %10s %9s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n", "operation", "count", "ops/s",
+                "p50", "p90", "p99", "p99.9", "max", "ok", "rejected", "conflict", "throttled", "failed");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = totals[operation.ordinal()];
+            all.add(histogram);
+            printRow(operation.name().toLowerCase(), histogram, elapsedSeconds, outcomes[operation.ordinal()]);
+        }
+        LongAdder[] allOutcomes = new LongAdder[Outcome.values().length];
+        for (Outcome outcome : Outcome.values()) {
+            allOutcomes[outcome.ordinal()] = new LongAdder();
+            allOutcomes[outcome.ordinal()].add(count(outcome));
+        }
+        printRow("total", all, elapsedSeconds, allOutcomes);
+        System.out.println();
+    }
+
+    private void printRow(String name, Histogram histogram, double elapsedSeconds, LongAdder[] counts) {
+        System.out.printf("%-10s %10d %10.0f %9s %9s %9s %9s %9s %9d %9d %9d %9d %9d%n", name,
+                histogram.getTotalCount(), histogram.getTotalCount() / elapsedSeconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                counts[Outcome.OK.ordinal()].sum(), counts[Outcome.REJECTED.ordinal()].sum(),
+                counts[Outcome.CONFLICT.ordinal()].sum(), counts[Outcome.THROTTLED.ordinal()].sum(),
+                counts[Outcome.FAILED.ordinal()].sum());
+    }
+
+    private long count(Outcome outcome) {
+        long total = 0;
+        for (LongAdder[] counts : outcomes) {
+            total += counts[outcome.ordinal()].sum();
+        }
+        return total;
+    }
+
+    private String mixDescription() {
+        StringBuilder description = new StringBuilder();
+        for (Operation operation : Operation.values()) {
+            if (description.length() > 0) {
+                description.append(',');
+            }
+            description.append(operation.name().toLowerCase()).append(':').append(options.mix()[operation.ordinal()]);
+        }
+        return description.toString();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2fms", micros / 1000.0);
+    }
+
+    /**
+     * What a response says about the operation. Only FAILED leaves it unknown whether a
+     * deposit or withdrawal was applied; every other 4xx is a rejection that changed nothing.
+     */
+    private enum Outcome {
+        OK, REJECTED, CONFLICT, THROTTLED, FAILED;
+
+        static Outcome of(int status) {
+            if (status >= 200 && status < 300) {
+                return OK;
+            }
+            if (status == 409) {
+                return CONFLICT;
+            }
+            if (status == 429) {
+                return THROTTLED;
+            }
+            return status >= 400 && status < 500 ? REJECTED : FAILED;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package apiabstractmethod.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup time of the production build in target/app, run as part of {@code mvn -Pprod verify}.
+ * Each configuration is started {@code iterations} times as a new JVM with the prod profile. Two
+ * times are taken from the moment the process is launched: until Spring reports the context as
+ * started, and until the first {@code GET /api/transactions/types} is answered, which includes
+ * the beans that lazy initialization left for the first request.
+ */
+public class StartupBenchmark {
+
+    private static final Pattern PORT = Pattern.compile("Tomcat started on port (\\d+)");
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private final Path jar;
+    private final int iterations;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    StartupBenchmark(Path jar, int iterations) {
+        this.jar = jar;
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: StartupBenchmark <application jar> [iterations]");
+        }
+        Path jar = Path.of(args[0]).toAbsolutePath();
+        StartupBenchmark benchmark = new StartupBenchmark(jar, args.length > 1 ? Integer.parseInt(args[1]) : 5);
+        Path archive = jar.resolveSibling("application.jsa");
+
+        System.out.printf("%-12s %14s %14s %18s%n", "mode", "started p50", "started min", "first request p50");
+        benchmark.measure("jvm");
+        benchmark.measure("aot", "-Dspring.aot.enabled=true");
+        if (Files.exists(archive)) {
+            benchmark.measure("aot+cds", "-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive);
+        }
+    }
+
+    private void measure(String mode, String... jvmArgs) throws Exception {
+        long[] started = new long[iterations];
+        long[] firstRequest = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long[] run = startOnce(jvmArgs);
+            started[i] = run[0];
+            firstRequest[i] = run[1];
+        }
+        Arrays.sort(started);
+        Arrays.sort(firstRequest);
+        System.out.printf("%-12s %12dms %12dms %16dms%n", mode,
+                started[iterations / 2], started[0], firstRequest[iterations / 2]);
+    }
+
+    /** Returns the milliseconds until the context was started and until the first request was answered. */
+    private long[] startOnce(String... jvmArgs) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(List.of(jvmArgs));
+        command.addAll(List.of("-jar", jar.getFileName().toString(),
+                "--spring.profiles.active=prod", "--server.port=0"));
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(jar.getParent().toFile())
+                .redirectErrorStream(true)
+                .start();
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            int port = -1;
+            String line;
+            while ((line = output.readLine()) != null) {
+                Matcher matcher = PORT.matcher(line);
+                if (matcher.find()) {
+                    port = Integer.parseInt(matcher.group(1));
+                }
+                if (line.contains("Started ") && port > 0) {
+                    long started = System.nanoTime();
+                    firstRequest(port);
+                    return new long[]{millis(started - launched), millis(System.nanoTime() - launched)};
+                }
+                if (System.nanoTime() - launched > TIMEOUT.toNanos()) {
+                    break;
+                }
+            }
+            throw new IllegalStateException("Application did not start within " + TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void firstRequest(int port) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/transactions/types")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("First request failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
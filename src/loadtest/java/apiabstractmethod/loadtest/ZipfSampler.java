@@ -0,0 +1,36 @@
+package apiabstractmethod.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks an index in [0, n) with probability proportional to 1 / (rank + 1)^skew, so low indexes
+ * are the hot accounts. A skew of 0 is uniform; around 1 the first 1% of accounts take a large
+ * share of the traffic.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double skew) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    int next() {
+        int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+
+    /** Share of samples that land on the first {@code count} indexes. */
+    double share(int count) {
+        return cumulative[Math.min(count, cumulative.length) - 1];
+    }
+}
@@ -0,0 +1,95 @@
+package apiabstractmethod.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds {@code application/cbor} request and response bodies next to JSON, for internal callers
+ * that ask for it with {@code Content-Type} and {@code Accept}. The CBOR mapper is a copy of
+ * Spring Boot's JSON mapper with a CBOR factory, so both encode the same fields. Amounts stay
+ * {@link java.math.BigDecimal}, which Jackson writes as a CBOR decimal fraction: the unscaled
+ * value as an integer and the scale as its exponent, with no decimal text to format or parse.
+ * <p>
+ * The converter and codecs are appended after the JSON ones, so a request that does not name a
+ * media type still gets JSON. The mapper is deliberately not a bean: an {@link ObjectMapper} bean
+ * would replace Spring Boot's JSON mapper.
+ */
+@Configuration
+public class CborConfig {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public WebMvcConfigurer cborMessageConverter(ObjectMapper objectMapper) {
+        ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper));
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CodecCustomizer cborCodecs(ObjectMapper objectMapper) {
+        ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            // Custom writers are consulted before the default ones, so JSON is registered again ahead of CBOR
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new ArrayStreamingCborEncoder(cborMapper));
+        };
+    }
+
+    /**
+     * Encodes a {@link Flux} body, which {@link Jackson2CborEncoder} rejects, as a CBOR array of
+     * indefinite length: each element is written as it arrives, between the array's start and
+     * break bytes.
+     */
+    static class ArrayStreamingCborEncoder extends Jackson2CborEncoder {
+
+        private static final byte INDEFINITE_ARRAY_START = (byte) 0x9f;
+        private static final byte BREAK = (byte) 0xff;
+
+        ArrayStreamingCborEncoder(ObjectMapper cborMapper) {
+            super(cborMapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, @Nullable MimeType mimeType,
+                                       @Nullable Map<String, Object> hints) {
+            if (inputStream instanceof Mono) {
+                return Mono.from(inputStream)
+                        .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                        .flux();
+            }
+            return Flux.concat(
+                    Mono.fromSupplier(() -> bufferFactory.wrap(new byte[]{INDEFINITE_ARRAY_START})),
+                    Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)),
+                    Mono.fromSupplier(() -> bufferFactory.wrap(new byte[]{BREAK})));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package apiabstractmethod.config;
+
+import apiabstractmethod.service.AccrualService;
+import apiabstractmethod.service.BalanceEngine;
+import apiabstractmethod.service.CrossShardTransferService;
+import apiabstractmethod.service.LedgerService;
+import apiabstractmethod.service.TransactionPipeline;
+import apiabstractmethod.service.WriteAheadLog;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Beans that are still created at startup when {@code spring.main.lazy-initialization} is on, as
+ * in the prod profile. Connecting to the database and bootstrapping Hibernate would otherwise
+ * land on the first request, and the balance engines replay or project balances and start their
+ * scheduled flushes before any traffic arrives. The accrual job registers its schedule and
+ * resumes interrupted runs at startup too, and so does the sweep that settles interrupted
+ * cross-shard transfers.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerPersistenceAndEngines() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+                BalanceEngine.class, LedgerService.class, TransactionPipeline.class, WriteAheadLog.class,
+                AccrualService.class, CrossShardTransferService.class);
+    }
+}
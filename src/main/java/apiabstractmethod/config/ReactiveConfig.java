@@ -0,0 +1,75 @@
+package apiabstractmethod.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Infrastructure for the reactive profile. Requests are served by Netty on a small fixed set of
+ * event-loop threads, and the account and transaction endpoints read and write through R2DBC.
+ * <p>
+ * JPA stays up alongside R2DBC, since Hibernate owns the schema and the rest of the services
+ * are still built on it. Spring Boot backs its datasource and transaction manager off as soon as
+ * an R2DBC connection factory exists, so both are declared here. The R2DBC transaction manager
+ * is the primary one; JPA repositories look theirs up by name.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    public ReactiveConfig(@Value("${bank.balance-engine.enabled:false}") boolean balanceEngineEnabled,
+                          @Value("${bank.ledger.enabled:false}") boolean ledgerEnabled,
+                          @Value("${bank.pipeline.enabled:false}") boolean pipelineEnabled,
+                          @Value("${bank.sharding.enabled:false}") boolean shardingEnabled) {
+        if (balanceEngineEnabled || ledgerEnabled || pipelineEnabled || shardingEnabled) {
+            throw new IllegalStateException(
+                    "The reactive profile cannot be combined with the balance engine, the ledger, the transaction pipeline or sharding");
+        }
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources eventLoopResources(@Value("${bank.reactive.event-loop-threads:4}") int eventLoopThreads) {
+        return LoopResources.create("bank-event-loop", 1, eventLoopThreads, true);
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(LoopResources eventLoopResources) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.addServerCustomizers(server -> server.runOn(eventLoopResources));
+        return factory;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    @Primary
+    public R2dbcTransactionManager reactiveTransactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory);
+    }
+}
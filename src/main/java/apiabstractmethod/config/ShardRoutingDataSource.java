@@ -0,0 +1,37 @@
+package apiabstractmethod.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.function.Supplier;
+
+/**
+ * Hands out connections from the shard selected for the current thread, or from shard 0 when
+ * none is selected. The shard must be selected before a transaction starts, since the
+ * transaction binds the connection it obtains for its whole duration.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+
+    /**
+     * Runs a unit of work with the given shard selected, restoring the previous selection afterwards.
+     */
+    public <T> T withShard(int shard, Supplier<T> work) {
+        Integer previous = currentShard.get();
+        currentShard.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                currentShard.remove();
+            } else {
+                currentShard.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentShard.get();
+    }
+}
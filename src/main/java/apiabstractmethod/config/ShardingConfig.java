@@ -0,0 +1,103 @@
+package apiabstractmethod.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single datasource with one connection pool per shard, behind a
+ * {@link ShardRoutingDataSource}. Hibernate creates or updates the schema of shard 0 at startup
+ * as usual; the mapped tables are then exported to every other shard, and the account and
+ * transaction history id sequences of each shard are started in their own range so ids stay
+ * unique across shards.
+ * The pooled optimizer takes a sequence value as the last id of a block, so each sequence starts
+ * at the end of the first block of its range. Blocks of ids therefore never overlap or go below
+ * 1, whichever shard's sequence they were drawn from and in whatever order.
+ * <p>
+ * Sessions give their connection back at the end of every transaction. Otherwise the session
+ * opened for a web request would keep the first shard's connection for the rest of the request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bank.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final int SHARD_ID_BITS = 40;
+    private static final int ID_BLOCK_SIZE = 100;
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(@Value("${bank.sharding.urls}") List<String> urls,
+                                             @Value("${spring.datasource.username:sa}") String username,
+                                             @Value("${spring.datasource.password:}") String password,
+                                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        Map<Object, Object> shards = new HashMap<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(shard).trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            shards.put(shard, dataSource);
+        }
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(shards);
+        routingDataSource.setDefaultTargetDataSource(shards.get(0));
+        return routingDataSource;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public SmartInitializingSingleton shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                             ShardRoutingDataSource dataSource,
+                                                             @Value("${bank.sharding.urls}") List<String> urls) {
+        return () -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            for (int shard = 0; shard < urls.size(); shard++) {
+                boolean export = shard > 0;
+                long firstBlockEnd = ((long) shard << SHARD_ID_BITS) + ID_BLOCK_SIZE;
+                dataSource.withShard(shard, () -> {
+                    if (export) {
+                        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getSchemaManager().exportMappedObjects(true);
+                    }
+                    restartIfEmpty(jdbcTemplate, "accounts", "accounts_seq", firstBlockEnd);
+                    restartIfEmpty(jdbcTemplate, "transaction_history", "transaction_history_seq", firstBlockEnd);
+                    return null;
+                });
+            }
+        };
+    }
+
+    /**
+     * Restarts the id sequence of a table that holds no rows yet. The block size must match the
+     * allocationSize of the entity's sequence generator.
+     */
+    private static void restartIfEmpty(JdbcTemplate jdbcTemplate, String table, String sequence, long firstBlockEnd) {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        if (rows != null && rows == 0) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + firstBlockEnd);
+        }
+    }
+}
@@ -4,53 +4,256 @@ import apiabstractmethod.mapper.AccountMapper;
 import apiabstractmethod.model.entity.AccountEntity;
 import apiabstractmethod.repository.AccountRepository;
 import apiabstractmethod.request.AccountRequest;
+import apiabstractmethod.response.AccountImportResponse;
+import apiabstractmethod.response.AccountPageResponse;
 import apiabstractmethod.response.AccountResponse;
+import apiabstractmethod.response.BalanceChangedEvent;
+import apiabstractmethod.response.TransactionHistoryPageResponse;
+import apiabstractmethod.service.AccountImportService;
+import apiabstractmethod.service.AccountQueryService;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEngine;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.LedgerService;
+import apiabstractmethod.service.ShardRouter;
+import apiabstractmethod.service.TransactionHistoryService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/accounts")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Account API", description = "Endpoints for managing bank accounts")
 public class AccountController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final AccountRepository accountRepository;
     private final AccountMapper accountMapper;
+    private final AccountCache accountCache;
+    private final Optional<BalanceEngine> balanceEngine;
+    private final Optional<LedgerService> ledgerService;
+    private final AccountQueryService accountQueryService;
+    private final AccountImportService accountImportService;
+    private final ShardRouter shardRouter;
+    private final BalanceEventBus balanceEventBus;
+    private final TransactionHistoryService transactionHistoryService;
+    private final Duration eventStreamTimeout;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter accountWriter;
+    private final CBORFactory cborFactory = new CBORFactory();
 
-    public AccountController(AccountRepository accountRepository, AccountMapper accountMapper) {
+    public AccountController(AccountRepository accountRepository, AccountMapper accountMapper, AccountCache accountCache,
+                             Optional<BalanceEngine> balanceEngine, Optional<LedgerService> ledgerService,
+                             AccountQueryService accountQueryService, AccountImportService accountImportService,
+                             ShardRouter shardRouter, BalanceEventBus balanceEventBus,
+                             TransactionHistoryService transactionHistoryService, ObjectMapper objectMapper,
+                             @Value("${bank.events.stream-timeout:30m}") Duration eventStreamTimeout) {
         this.accountRepository = accountRepository;
         this.accountMapper = accountMapper;
+        this.accountCache = accountCache;
+        this.balanceEngine = balanceEngine;
+        this.ledgerService = ledgerService;
+        this.accountQueryService = accountQueryService;
+        this.accountImportService = accountImportService;
+        this.shardRouter = shardRouter;
+        this.balanceEventBus = balanceEventBus;
+        this.transactionHistoryService = transactionHistoryService;
+        this.eventStreamTimeout = eventStreamTimeout;
+        this.objectMapper = objectMapper;
+        this.accountWriter = objectMapper.writerFor(AccountResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping
     @Operation(summary = "Create a new account", description = "Creates a new bank account with the provided details")
     public ResponseEntity<AccountResponse> createAccount(@Valid @RequestBody AccountRequest request) {
         AccountEntity entity = accountMapper.toEntity(request);
-        AccountEntity savedEntity = accountRepository.save(entity);
+        AccountEntity savedEntity = shardRouter.onShardOf(entity.getAccountNumber(), () -> accountRepository.save(entity));
+        accountCache.put(savedEntity);
         return new ResponseEntity<>(accountMapper.toResponse(savedEntity), HttpStatus.CREATED);
     }
 
-    @GetMapping
-    @Operation(summary = "Get all accounts", description = "Retrieves a list of all bank accounts")
-    public ResponseEntity<List<AccountResponse>> getAllAccounts() {
-        List<AccountResponse> accounts = accountRepository.findAll().stream()
-                .map(accountMapper::toResponse)
-                .toList();
-        return ResponseEntity.ok(accounts);
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import accounts from CSV",
+            description = "Creates accounts from a CSV body with an accountNumber,accountType,initialBalance,ownerName header, "
+                    + "reporting the rows that were rejected")
+    public ResponseEntity<AccountImportResponse> importCsv(InputStream body) {
+        return ResponseEntity.ok(accountImportService.importCsv(body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import accounts from NDJSON",
+            description = "Creates accounts from newline-delimited account requests, reporting the rows that were rejected")
+    public ResponseEntity<AccountImportResponse> importNdjson(InputStream body) {
+        return ResponseEntity.ok(accountImportService.importNdjson(body));
+    }
+
+    /**
+     * JSON and CBOR share one mapping: with a separate CBOR mapping, Spring MVC would break the
+     * tie for {@code Accept: *}{@code /*} alphabetically and answer CBOR by default.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get all accounts",
+            description = "Retrieves a list of all bank accounts, streamed as a JSON array or as a CBOR array")
+    public ResponseEntity<StreamingResponseBody> getAllAccounts(
+            @RequestHeader(name = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept) {
+        return prefersCbor(accept)
+                ? streamArray(cborFactory, MediaType.APPLICATION_CBOR)
+                : streamArray(objectMapper.getFactory(), MediaType.APPLICATION_JSON);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all accounts", description = "Streams all bank accounts as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamAllAccounts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+                    generator.setRootValueSeparator(null);
+                    accountQueryService.forEachAccount(account -> {
+                        writeValue(generator, account);
+                        writeRaw(generator, '\n');
+                    });
+                    generator.flush();
+                });
+    }
+
+    @GetMapping(params = "size", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get a page of accounts", description = "Retrieves accounts with an id greater than afterId, in id order")
+    public ResponseEntity<AccountPageResponse> getAccountPage(@RequestParam(defaultValue = "0") long afterId,
+                                                              @RequestParam int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(accountQueryService.findPage(afterId, size));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream balance changes",
+            description = "Sends a server-sent event each time a committed transaction changes the balance of one of the "
+                    + "given accounts, or of any account when none is given")
+    public SseEmitter streamBalanceChanges(@RequestParam(name = "accountNumber", required = false) Set<String> accountNumbers) {
+        SseEmitter emitter = new SseEmitter(eventStreamTimeout.toMillis());
+        BalanceEventBus.Subscription subscription = balanceEventBus.subscribe(
+                accountNumbers == null ? Set.of() : accountNumbers,
+                event -> sendEvent(emitter, event),
+                emitter::complete);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
     }
 
     @GetMapping("/{accountNumber}")
     @Operation(summary = "Get account by number", description = "Retrieves a bank account by its account number")
     public ResponseEntity<AccountResponse> getAccountByNumber(@Valid @PathVariable String accountNumber) {
-        Optional<AccountEntity> accountOpt = accountRepository.findByAccountNumber(accountNumber);
+        Optional<AccountEntity> accountOpt = accountCache.get(accountNumber);
         return accountOpt
+                .map(this::withCurrentBalance)
                 .map(account -> ResponseEntity.ok(accountMapper.toResponse(account)))
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping("/{accountNumber}/transactions")
+    @Operation(summary = "Get account transaction history",
+            description = "Retrieves the transactions made on an account from `from` (inclusive) to `to` (exclusive), "
+                    + "newest first, each with the balance it left the account with")
+    public ResponseEntity<TransactionHistoryPageResponse> getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (accountCache.get(accountNumber).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(transactionHistoryService.findHistory(accountNumber, from, to, cursor, size));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamArray(JsonFactory factory, MediaType mediaType) {
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(out -> {
+                    JsonGenerator generator = factory.createGenerator(out);
+                    generator.writeStartArray();
+                    accountQueryService.forEachAccount(account -> writeValue(generator, account));
+                    generator.writeEndArray();
+                    generator.flush();
+                });
+    }
+
+    private static boolean prefersCbor(String accept) {
+        List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (acceptedType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeValue(JsonGenerator generator, AccountResponse account) {
+        try {
+            accountWriter.writeValue(generator, account);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sendEvent(SseEmitter emitter, BalanceChangedEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name("balance-changed").data(event, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeRaw(JsonGenerator generator, char c) {
+        try {
+            generator.writeRaw(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private AccountEntity withCurrentBalance(AccountEntity account) {
+        ledgerService.ifPresent(ledger -> account.setBalance(ledger.currentBalance(account)));
+        balanceEngine.flatMap(engine -> engine.currentBalance(account.getAccountNumber()))
+                .ifPresent(account::setBalance);
+        return account;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package apiabstractmethod.controller;
+
+import apiabstractmethod.response.AccrualRunResponse;
+import apiabstractmethod.service.AccrualService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/accruals")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "bank.accrual.enabled", havingValue = "true")
+@Tag(name = "Accrual API", description = "Endpoints for crediting interest and charging fees to every account")
+public class AccrualController {
+
+    private final AccrualService accrualService;
+
+    public AccrualController(AccrualService accrualService) {
+        this.accrualService = accrualService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Start an accrual run",
+            description = "Credits interest and charges fees to every account for a period, in the background. "
+                    + "An interrupted run resumes where it stopped, and a completed period is never accrued again")
+    public ResponseEntity<AccrualRunResponse> start(
+            @Parameter(description = "Period to accrue, the current month if omitted", example = "2026-10")
+            @RequestParam(required = false) String period) {
+        AccrualRunResponse response = accrualService.start(period != null ? period : accrualService.currentPeriod());
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{period}")
+    @Operation(summary = "Get accrual progress", description = "Retrieves the progress and totals of the accrual run of a period")
+    public ResponseEntity<AccrualRunResponse> getStatus(@PathVariable String period) {
+        return ResponseEntity.ok(accrualService.status(period));
+    }
+}
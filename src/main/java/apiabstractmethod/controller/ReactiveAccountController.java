@@ -0,0 +1,121 @@
+package apiabstractmethod.controller;
+
+import apiabstractmethod.request.AccountRequest;
+import apiabstractmethod.response.AccountPageResponse;
+import apiabstractmethod.response.AccountResponse;
+import apiabstractmethod.response.BalanceChangedEvent;
+import apiabstractmethod.response.TransactionHistoryPageResponse;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.ReactiveAccountService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/accounts")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Account API", description = "Endpoints for managing bank accounts")
+public class ReactiveAccountController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ReactiveAccountService accountService;
+    private final BalanceEventBus balanceEventBus;
+    private final int subscriberBuffer;
+    private final Duration eventStreamTimeout;
+
+    public ReactiveAccountController(ReactiveAccountService accountService, BalanceEventBus balanceEventBus,
+                                     @Value("${bank.events.subscriber-buffer:1024}") int subscriberBuffer,
+                                     @Value("${bank.events.stream-timeout:30m}") Duration eventStreamTimeout) {
+        this.accountService = accountService;
+        this.balanceEventBus = balanceEventBus;
+        this.subscriberBuffer = subscriberBuffer;
+        this.eventStreamTimeout = eventStreamTimeout;
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a new account", description = "Creates a new bank account with the provided details")
+    public Mono<ResponseEntity<AccountResponse>> createAccount(@Valid @RequestBody AccountRequest request) {
+        return accountService.createAccount(request)
+                .map(account -> new ResponseEntity<>(account, HttpStatus.CREATED));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get all accounts",
+            description = "Streams all bank accounts as a JSON array, as newline-delimited JSON or as a CBOR array, "
+                    + "at the pace the client reads them")
+    public Flux<AccountResponse> getAllAccounts() {
+        return accountService.findAll();
+    }
+
+    @GetMapping(params = "size", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get a page of accounts", description = "Retrieves accounts with an id greater than afterId, in id order")
+    public Mono<AccountPageResponse> getAccountPage(@RequestParam(defaultValue = "0") long afterId,
+                                                    @RequestParam int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        return accountService.findPage(afterId, size);
+    }
+
+    /**
+     * Bridges a bus subscription into the response. Events the connection cannot keep up with
+     * wait in a buffer of the same size as the bus's own; once that overflows the stream ends,
+     * as a dropped subscriber's would.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream balance changes",
+            description = "Sends a server-sent event each time a committed transaction changes the balance of one of the "
+                    + "given accounts, or of any account when none is given")
+    public Flux<ServerSentEvent<BalanceChangedEvent>> streamBalanceChanges(
+            @RequestParam(name = "accountNumber", required = false) Set<String> accountNumbers) {
+        return Flux.<BalanceChangedEvent>create(sink -> {
+                    BalanceEventBus.Subscription subscription = balanceEventBus.subscribe(
+                            accountNumbers == null ? Set.of() : accountNumbers, sink::next, sink::complete);
+                    sink.onDispose(subscription::close);
+                })
+                .onBackpressureBuffer(subscriberBuffer)
+                .onErrorComplete()
+                .take(eventStreamTimeout)
+                .map(event -> ServerSentEvent.builder(event).event("balance-changed").build());
+    }
+
+    @GetMapping("/{accountNumber}")
+    @Operation(summary = "Get account by number", description = "Retrieves a bank account by its account number")
+    public Mono<ResponseEntity<AccountResponse>> getAccountByNumber(@PathVariable String accountNumber) {
+        return accountService.findByAccountNumber(accountNumber)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{accountNumber}/transactions")
+    @Operation(summary = "Get account transaction history",
+            description = "Retrieves the transactions made on an account from `from` (inclusive) to `to` (exclusive), "
+                    + "newest first, each with the balance it left the account with")
+    public Mono<ResponseEntity<TransactionHistoryPageResponse>> getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        return accountService.findHistory(accountNumber, from, to, cursor, size)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,66 @@
+package apiabstractmethod.controller;
+
+import apiabstractmethod.request.TransactionBatchRequest;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import apiabstractmethod.service.RateLimiter;
+import apiabstractmethod.service.ReactiveTransactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/transactions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Transaction API", description = "Endpoints for processing financial transactions")
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService transactionService;
+    private final Optional<RateLimiter> rateLimiter;
+
+    public ReactiveTransactionController(ReactiveTransactionService transactionService, Optional<RateLimiter> rateLimiter) {
+        this.transactionService = transactionService;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @PostMapping
+    @Operation(summary = "Process a transaction", description = "Processes a financial transaction (deposit, withdrawal) on an account")
+    public Mono<ResponseEntity<TransactionResponse>> processTransaction(
+            @Valid @RequestBody TransactionRequest request,
+            ServerHttpRequest httpRequest) {
+        limit(httpRequest, List.of(request.getAccountNumber()));
+        return transactionService.processTransaction(request).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Process a batch of transactions", description = "Processes a list of financial transactions one after another and returns one result per item, in order")
+    public Flux<TransactionResponse> processBatch(
+            @Valid @RequestBody TransactionBatchRequest request,
+            ServerHttpRequest httpRequest) {
+        limit(httpRequest, request.getTransactions().stream().map(TransactionRequest::getAccountNumber).toList());
+        return transactionService.processBatch(request.getTransactions());
+    }
+
+    @GetMapping("/types")
+    @Operation(summary = "Get available transaction types", description = "Retrieves a list of all available transaction types")
+    public ResponseEntity<String[]> getAvailableTransactionTypes() {
+        return ResponseEntity.ok(transactionService.getAvailableTransactionTypes());
+    }
+
+    private void limit(ServerHttpRequest httpRequest, List<String> accountNumbers) {
+        rateLimiter.ifPresent(limiter -> {
+            InetSocketAddress remoteAddress = httpRequest.getRemoteAddress();
+            limiter.acquire(remoteAddress != null ? remoteAddress.getHostString() : "unknown", accountNumbers);
+        });
+    }
+}
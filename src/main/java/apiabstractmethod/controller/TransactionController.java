@@ -1,35 +1,75 @@
 package apiabstractmethod.controller;
 
+import apiabstractmethod.request.TransactionBatchRequest;
 import apiabstractmethod.request.TransactionRequest;
 import apiabstractmethod.response.TransactionResponse;
+import apiabstractmethod.service.IdempotencyService;
+import apiabstractmethod.service.RateLimiter;
 import apiabstractmethod.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/transactions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Transaction API", description = "Endpoints for processing financial transactions")
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final Optional<RateLimiter> rateLimiter;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, IdempotencyService idempotencyService,
+                                 Optional<RateLimiter> rateLimiter) {
         this.transactionService = transactionService;
+        this.idempotencyService = idempotencyService;
+        this.rateLimiter = rateLimiter;
     }
 
     @PostMapping
     @Operation(summary = "Process a transaction", description = "Processes a financial transaction (deposit, withdrawal) on an account")
-    public ResponseEntity<TransactionResponse> processTransaction(@Valid @RequestBody TransactionRequest request) {
-        TransactionResponse response = transactionService.processTransaction(request);
+    public ResponseEntity<TransactionResponse> processTransaction(
+            @Valid @RequestBody TransactionRequest request,
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        limit(httpRequest, List.of(request.getAccountNumber()));
+        TransactionResponse response = idempotencyKey == null
+                ? transactionService.processTransaction(request)
+                : idempotencyService.execute(clientOf(httpRequest), idempotencyKey, request,
+                        () -> transactionService.processTransaction(request));
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Process a batch of transactions", description = "Processes a list of financial transactions in one unit of work and returns one result per item, in order")
+    public ResponseEntity<List<TransactionResponse>> processBatch(
+            @Valid @RequestBody TransactionBatchRequest request,
+            HttpServletRequest httpRequest) {
+        limit(httpRequest, request.getTransactions().stream().map(TransactionRequest::getAccountNumber).toList());
+        return ResponseEntity.ok(transactionService.processBatch(request.getTransactions()));
+    }
+
     @GetMapping("/types")
     @Operation(summary = "Get available transaction types", description = "Retrieves a list of all available transaction types")
     public ResponseEntity<String[]> getAvailableTransactionTypes() {
         return ResponseEntity.ok(transactionService.getAvailableTransactionTypes());
     }
-}
\ No newline at end of file
+
+    private void limit(HttpServletRequest httpRequest, List<String> accountNumbers) {
+        rateLimiter.ifPresent(limiter -> limiter.acquire(clientOf(httpRequest), accountNumbers));
+    }
+
+    private static String clientOf(HttpServletRequest httpRequest) {
+        return httpRequest.getUserPrincipal() != null ? httpRequest.getUserPrincipal().getName() : httpRequest.getRemoteAddr();
+    }
+}
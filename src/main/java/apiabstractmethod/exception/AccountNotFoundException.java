@@ -0,0 +1,8 @@
+package apiabstractmethod.exception;
+
+public class AccountNotFoundException extends IllegalArgumentException {
+
+    public AccountNotFoundException(String accountNumber) {
+        super("Account not found: " + accountNumber);
+    }
+}
@@ -0,0 +1,8 @@
+package apiabstractmethod.exception;
+
+public class IdempotencyKeyReuseException extends IllegalArgumentException {
+
+    public IdempotencyKeyReuseException(String idempotencyKey) {
+        super("Idempotency key " + idempotencyKey + " was already used with a different request");
+    }
+}
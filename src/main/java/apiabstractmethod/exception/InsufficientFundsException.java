@@ -0,0 +1,8 @@
+package apiabstractmethod.exception;
+
+public class InsufficientFundsException extends IllegalArgumentException {
+
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
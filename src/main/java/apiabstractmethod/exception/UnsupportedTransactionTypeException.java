@@ -0,0 +1,8 @@
+package apiabstractmethod.exception;
+
+public class UnsupportedTransactionTypeException extends IllegalArgumentException {
+
+    public UnsupportedTransactionTypeException(String transactionType) {
+        super("Unsupported transaction type: " + transactionType);
+    }
+}
@@ -1,6 +1,7 @@
 package apiabstractmethod.mapper;
 
 import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.AccountRow;
 import apiabstractmethod.request.AccountRequest;
 import apiabstractmethod.response.AccountResponse;
 import org.springframework.stereotype.Component;
@@ -14,7 +15,9 @@ public class AccountMapper {
                 request.getAccountNumber(),
                 request.getAccountType(),
                 request.getInitialBalance(),
-                request.getOwnerName()
+                request.getOwnerName(),
+                null,
+                0L
         );
     }
 
@@ -27,4 +30,28 @@ public class AccountMapper {
                 entity.getOwnerName()
         );
     }
-}
\ No newline at end of file
+
+    public AccountEntity toEntity(AccountRow row) {
+        return new AccountEntity(
+                row.getId(),
+                row.getAccountNumber(),
+                row.getAccountType(),
+                row.getBalance(),
+                row.getOwnerName(),
+                row.getVersion(),
+                row.getLedgerSequence()
+        );
+    }
+
+    public AccountRow toRow(AccountEntity entity) {
+        return new AccountRow(
+                entity.getId(),
+                entity.getAccountNumber(),
+                entity.getAccountType(),
+                entity.getBalance(),
+                entity.getOwnerName(),
+                entity.getVersion(),
+                entity.getLedgerSequence()
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package apiabstractmethod.mapper;
+
+import apiabstractmethod.model.entity.TransactionHistoryEntity;
+import apiabstractmethod.model.entity.TransactionHistoryRow;
+import apiabstractmethod.response.TransactionRecordResponse;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransactionHistoryMapper {
+
+    public TransactionRecordResponse toResponse(TransactionHistoryEntity entity) {
+        return new TransactionRecordResponse(
+                entity.getId(),
+                entity.getTransactionType(),
+                entity.getAmount(),
+                entity.getBalanceAfter(),
+                entity.getOccurredAt()
+        );
+    }
+
+    public TransactionRecordResponse toResponse(TransactionHistoryRow row) {
+        return new TransactionRecordResponse(
+                row.getId(),
+                row.getTransactionType(),
+                row.getAmount(),
+                row.getBalanceAfter(),
+                row.getOccurredAt()
+        );
+    }
+}
@@ -0,0 +1,115 @@
+package apiabstractmethod.metrics;
+
+import apiabstractmethod.exception.AccountNotFoundException;
+import apiabstractmethod.exception.InsufficientFundsException;
+import apiabstractmethod.exception.UnsupportedTransactionTypeException;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.service.TransactionFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms and outcome counters for transaction processing. Every meter is registered
+ * up front for each known transaction type, so recording on the hot path is a map lookup and a
+ * lock-free update with no tag resolution or allocation.
+ */
+@Component
+public class TransactionMetrics {
+
+    public enum Phase {
+        LOOKUP, EXECUTE, PERSIST, TOTAL
+    }
+
+    public enum FailureReason {
+        INSUFFICIENT_FUNDS, UNKNOWN_TYPE, ACCOUNT_NOT_FOUND, CONFLICT, INVALID_REQUEST, ERROR
+    }
+
+    private final Map<TransactionType, TypeMeters> typeMeters = new EnumMap<>(TransactionType.class);
+    private final Map<FailureReason, Counter> failures = new EnumMap<>(FailureReason.class);
+
+    public TransactionMetrics(MeterRegistry meterRegistry, List<TransactionFactory> factories) {
+        for (TransactionFactory factory : factories) {
+            typeMeters.put(factory.getTransactionType(), new TypeMeters(meterRegistry, factory.getTransactionType().name()));
+        }
+        for (FailureReason reason : FailureReason.values()) {
+            failures.put(reason, Counter.builder("bank.transaction.failures")
+                    .description("Transactions that were rejected or failed, by reason")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} for one phase of a transaction.
+     *
+     * @return The current {@link System#nanoTime()}, to be used as the start of the next phase
+     */
+    public long record(TransactionType transactionType, Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        TypeMeters meters = typeMeters.get(transactionType);
+        if (meters != null) {
+            meters.phases.get(phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        }
+        return now;
+    }
+
+    public void success(TransactionType transactionType) {
+        TypeMeters meters = typeMeters.get(transactionType);
+        if (meters != null) {
+            meters.successes.increment();
+        }
+    }
+
+    public void failure(RuntimeException cause) {
+        failures.get(reasonOf(cause)).increment();
+    }
+
+    private static FailureReason reasonOf(RuntimeException cause) {
+        if (cause instanceof InsufficientFundsException) {
+            return FailureReason.INSUFFICIENT_FUNDS;
+        }
+        if (cause instanceof UnsupportedTransactionTypeException) {
+            return FailureReason.UNKNOWN_TYPE;
+        }
+        if (cause instanceof AccountNotFoundException) {
+            return FailureReason.ACCOUNT_NOT_FOUND;
+        }
+        if (cause instanceof OptimisticLockingFailureException) {
+            return FailureReason.CONFLICT;
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return FailureReason.INVALID_REQUEST;
+        }
+        return FailureReason.ERROR;
+    }
+
+    private static final class TypeMeters {
+
+        private final Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+        private final Counter successes;
+
+        private TypeMeters(MeterRegistry meterRegistry, String transactionType) {
+            for (Phase phase : Phase.values()) {
+                phases.put(phase, Timer.builder("bank.transaction.latency")
+                        .description("Time spent in each phase of transaction processing")
+                        .tag("type", transactionType)
+                        .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+            this.successes = Counter.builder("bank.transactions")
+                    .description("Transactions processed successfully")
+                    .tag("type", transactionType)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package apiabstractmethod.model;
+
+import java.math.BigDecimal;
+
+/**
+ * What the accrued chunks of a period add up to. The sums are null while no chunk is accrued.
+ */
+public record AccrualTotals(Long chunks, Long accounts, BigDecimal interest, BigDecimal fees) {
+}
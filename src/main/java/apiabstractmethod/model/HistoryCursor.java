@@ -0,0 +1,46 @@
+package apiabstractmethod.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the transaction history of an account: the time and id of the last record of a
+ * page. The next page holds the records strictly before it. Clients see it only as an opaque
+ * string.
+ *
+ * @param occurredAt The time of the last record returned
+ * @param id         The id of the last record returned
+ */
+public record HistoryCursor(Instant occurredAt, long id) {
+
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    /**
+     * The position of the first page: before every record at or after the exclusive end of the
+     * requested range, or before every record when there is no end.
+     */
+    public static HistoryCursor before(Instant to) {
+        return new HistoryCursor(to != null ? to : END_OF_TIME, Long.MIN_VALUE);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((occurredAt + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a cursor returned by this API
+     */
+    public static HistoryCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(',');
+            return new HistoryCursor(Instant.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+}
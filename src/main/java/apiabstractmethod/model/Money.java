@@ -0,0 +1,43 @@
+package apiabstractmethod.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversions between decimal amounts and scaled long minor units (cents for a currency with
+ * two fraction digits). Balances held in memory are kept as minor units so that arithmetic on
+ * them is plain long math; BigDecimal is only produced when a value leaves the engine.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal amount to minor units.
+     *
+     * @param amount The amount, with at most {@code scale} fraction digits
+     * @param scale  The number of fraction digits of the currency
+     * @return The amount in minor units
+     * @throws IllegalArgumentException if the amount has more fraction digits than the currency
+     *                                  allows or does not fit in a long
+     */
+    public static long toMinorUnits(BigDecimal amount, int scale) {
+        try {
+            return amount.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString()
+                    + " cannot be represented with " + scale + " decimal places");
+        }
+    }
+
+    /**
+     * Converts minor units back to a decimal amount with the currency's scale.
+     *
+     * @param minorUnits The amount in minor units
+     * @param scale      The number of fraction digits of the currency
+     * @return The decimal amount
+     */
+    public static BigDecimal toDecimal(long minorUnits, int scale) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+}
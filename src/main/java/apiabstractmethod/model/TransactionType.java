@@ -0,0 +1,45 @@
+package apiabstractmethod.model;
+
+import apiabstractmethod.exception.UnsupportedTransactionTypeException;
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * The transaction types the API accepts. A request's type is resolved once, while its body is
+ * deserialized, and its ordinal then indexes the factory table directly.
+ */
+public enum TransactionType {
+    DEPOSIT, WITHDRAWAL, TRANSFER, INTEREST, FEE;
+
+    private static final TransactionType[] VALUES = values();
+
+    /**
+     * Resolves a type name case-insensitively, without allocating an upper-cased copy.
+     *
+     * @param value The type name as sent by the client
+     * @return The matching transaction type
+     * @throws UnsupportedTransactionTypeException if no type has that name
+     */
+    @JsonCreator
+    public static TransactionType fromValue(String value) {
+        TransactionType type = find(value);
+        if (type == null) {
+            throw new UnsupportedTransactionTypeException(value);
+        }
+        return type;
+    }
+
+    /**
+     * Resolves a type name case-insensitively, like {@link #fromValue(String)}.
+     *
+     * @param value The type name as sent by the client
+     * @return The matching transaction type, or null if no type has that name
+     */
+    public static TransactionType find(String value) {
+        for (TransactionType type : VALUES) {
+            if (type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
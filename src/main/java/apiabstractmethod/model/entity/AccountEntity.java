@@ -8,14 +8,17 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_accounts_account_number", columnNames = {"accountNumber"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AccountEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 100)
     private Long id;
     
     @Column(nullable = false)
@@ -29,4 +32,18 @@ public class AccountEntity {
     
     @Column(nullable = false)
     private String ownerName;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private long ledgerSequence;
+
+    /**
+     * Returns a detached copy of this account holding the given balance, so a transaction can be
+     * executed against it without touching this instance.
+     */
+    public AccountEntity copyWithBalance(BigDecimal balance) {
+        return new AccountEntity(id, accountNumber, accountType, balance, ownerName, version, ledgerSequence);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package apiabstractmethod.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * R2DBC mapping of the accounts table used by the reactive profile. The table itself is owned
+ * by {@link AccountEntity}, whose mapping Hibernate uses to create and update the schema.
+ */
+@Table("accounts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountRow {
+
+    @Id
+    private Long id;
+
+    private String accountNumber;
+
+    private String accountType;
+
+    private BigDecimal balance;
+
+    private String ownerName;
+
+    @Version
+    private Long version;
+
+    private long ledgerSequence;
+}
@@ -0,0 +1,45 @@
+package apiabstractmethod.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The checkpoint of one accrued chunk, committed in the same transaction as the balances it
+ * changed. The unique constraint makes sure no chunk is accrued twice for a period.
+ */
+@Entity
+@Table(name = "accrual_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_accrual_chunks_period_chunk", columnNames = {"period", "chunkIndex"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualChunkEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String period;
+
+    @Column(nullable = false)
+    private long chunkIndex;
+
+    @Column(nullable = false)
+    private long accounts;
+
+    @Column(nullable = false)
+    private BigDecimal interest;
+
+    @Column(nullable = false)
+    private BigDecimal fees;
+
+    @Column(nullable = false)
+    private Instant completedAt;
+}
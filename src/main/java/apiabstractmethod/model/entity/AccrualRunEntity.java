@@ -0,0 +1,42 @@
+package apiabstractmethod.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An interest and fee accrual run for one period. The id range and chunk size are fixed when the
+ * run starts, so a resumed run splits the accounts into exactly the same chunks.
+ */
+@Entity
+@Table(name = "accrual_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualRunEntity {
+
+    @Id
+    private String period;
+
+    /** Exclusive lower bound of the first chunk. */
+    @Column(nullable = false)
+    private long firstAccountId;
+
+    /** Inclusive upper bound of the last chunk: the highest account id when the run started. */
+    @Column(nullable = false)
+    private long lastAccountId;
+
+    @Column(nullable = false)
+    private int chunkSize;
+
+    @Column(nullable = false)
+    private long chunks;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant completedAt;
+}
@@ -0,0 +1,41 @@
+package apiabstractmethod.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "ledger_entries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ledger_account_sequence", columnNames = {"accountNumber", "sequence"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Column(nullable = false)
+    private String transactionType;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private BigDecimal balanceAfter;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,59 @@
+package apiabstractmethod.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+@Entity
+@Table(name = "transaction_history", indexes = {
+        @Index(name = "idx_transaction_history_account_time", columnList = "accountNumber, occurredAt, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_history_seq")
+    @SequenceGenerator(name = "transaction_history_seq", sequenceName = "transaction_history_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private String transactionType;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private BigDecimal balanceAfter;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    /**
+     * Creates the record of a transaction that just left the account with its current balance.
+     * The time is truncated to the microsecond precision the database keeps, so a cursor built
+     * from a returned record matches the stored row exactly.
+     */
+    public static TransactionHistoryEntity of(AccountEntity account, String transactionType, BigDecimal amount) {
+        return of(account, transactionType, amount, Instant.now().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    /**
+     * Creates the record of a transaction that left the account with its current balance at the
+     * given time, which must already be truncated to microseconds.
+     */
+    public static TransactionHistoryEntity of(AccountEntity account, String transactionType, BigDecimal amount,
+                                              Instant occurredAt) {
+        return new TransactionHistoryEntity(null, account.getAccountNumber(), transactionType, amount,
+                account.getBalance(), occurredAt);
+    }
+}
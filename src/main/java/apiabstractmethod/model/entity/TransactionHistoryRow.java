@@ -0,0 +1,34 @@
+package apiabstractmethod.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * R2DBC mapping of the transaction_history table used by the reactive profile. The table itself
+ * is owned by {@link TransactionHistoryEntity}.
+ */
+@Table("transaction_history")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistoryRow {
+
+    @Id
+    private Long id;
+
+    private String accountNumber;
+
+    private String transactionType;
+
+    private BigDecimal amount;
+
+    private BigDecimal balanceAfter;
+
+    private Instant occurredAt;
+}
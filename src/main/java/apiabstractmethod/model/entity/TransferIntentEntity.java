@@ -0,0 +1,54 @@
+package apiabstractmethod.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A transfer between accounts on different shards, stored on the source account's shard in the
+ * same transaction as the debit. While it is pending the money is in flight: it has left the
+ * source and may or may not have reached the target. The target shard's
+ * {@link TransferReceiptEntity} for the intent tells which, and settles it.
+ */
+@Entity
+@Table(name = "transfer_intents", indexes = {
+        @Index(name = "idx_transfer_intents_status_created", columnList = "status, createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferIntentEntity {
+
+    public enum Status {
+        PENDING, COMPLETED, REVERSED
+    }
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String sourceAccountNumber;
+
+    @Column(nullable = false)
+    private String targetAccountNumber;
+
+    @Column(nullable = false)
+    private String transactionType;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Version
+    private Long version;
+}
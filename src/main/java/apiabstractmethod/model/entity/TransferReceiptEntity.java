@@ -0,0 +1,41 @@
+package apiabstractmethod.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The outcome of a cross-shard transfer on its target shard. A credit inserts it in the same
+ * transaction as the new balance, and a cancellation inserts it alone. The unique constraint lets
+ * only the first of the two happen, so a transfer is never both credited and reversed.
+ */
+@Entity
+@Table(name = "transfer_receipts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transfer_receipts_intent", columnNames = {"intentId"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferReceiptEntity {
+
+    public enum Outcome {
+        CREDITED, CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String intentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Outcome outcome;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -1,12 +1,81 @@
 package apiabstractmethod.repository;
 
 import apiabstractmethod.model.entity.AccountEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
     Optional<AccountEntity> findByAccountNumber(String accountNumber);
-}
\ No newline at end of file
+
+    List<AccountEntity> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    @Query("select a.accountNumber from AccountEntity a where a.accountNumber in :accountNumbers")
+    List<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    List<AccountEntity> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<AccountEntity> streamAllByOrderByIdAsc();
+
+    @Query("select min(a.id) from AccountEntity a")
+    Long findMinId();
+
+    @Query("select max(a.id) from AccountEntity a")
+    Long findMaxId();
+
+    /**
+     * Returns the indexes of the fixed-size id-range chunks between two ids that hold at least
+     * one account, read from the primary key index alone.
+     */
+    @Query("select distinct (a.id - :afterId - 1) / :chunkSize from AccountEntity a " +
+            "where a.id > :afterId and a.id <= :lastId order by 1")
+    List<Long> findChunksWithAccounts(@Param("afterId") long afterId, @Param("lastId") long lastId,
+                                      @Param("chunkSize") long chunkSize);
+
+    /**
+     * Returns the accounts in an id range as detached copies, which the persistence context
+     * does not track, so changing them issues no update of their own.
+     */
+    @Query("select new apiabstractmethod.model.entity.AccountEntity(a.id, a.accountNumber, a.accountType, a.balance, a.ownerName, a.version, a.ledgerSequence) " +
+            "from AccountEntity a where a.id > :afterId and a.id <= :lastId order by a.id")
+    List<AccountEntity> findDetachedByIdRange(@Param("afterId") long afterId, @Param("lastId") long lastId);
+
+    @Query("select new apiabstractmethod.model.entity.AccountEntity(a.id, a.accountNumber, a.accountType, a.balance, a.ownerName, a.version, a.ledgerSequence) " +
+            "from AccountEntity a where a.id in :ids order by a.id")
+    List<AccountEntity> findDetachedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update versioned AccountEntity a set a.balance = :balance where a.id = :id")
+    int updateBalance(@Param("id") Long id, @Param("balance") BigDecimal balance);
+
+    @Modifying
+    @Query("update AccountEntity a set a.balance = :balance, a.version = :version where a.id = :id")
+    int updateBalanceAndVersion(@Param("id") Long id, @Param("balance") BigDecimal balance,
+                                @Param("version") long version);
+
+    @Modifying
+    @Query("update AccountEntity a set a.balance = :balance, a.version = a.version + 1 " +
+            "where a.id = :id and a.version = :version")
+    int updateBalanceIfVersion(@Param("id") Long id, @Param("balance") BigDecimal balance,
+                               @Param("version") Long version);
+
+    @Modifying
+    @Query("update versioned AccountEntity a set a.balance = :balance, a.ledgerSequence = :sequence " +
+            "where a.accountNumber = :accountNumber and a.ledgerSequence < :sequence")
+    int updateSnapshot(@Param("accountNumber") String accountNumber, @Param("balance") BigDecimal balance,
+                       @Param("sequence") long sequence);
+}
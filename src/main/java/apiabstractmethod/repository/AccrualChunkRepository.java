@@ -0,0 +1,21 @@
+package apiabstractmethod.repository;
+
+import apiabstractmethod.model.AccrualTotals;
+import apiabstractmethod.model.entity.AccrualChunkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccrualChunkRepository extends JpaRepository<AccrualChunkEntity, Long> {
+
+    @Query("select c.chunkIndex from AccrualChunkEntity c where c.period = :period")
+    List<Long> findChunkIndexes(@Param("period") String period);
+
+    @Query("select new apiabstractmethod.model.AccrualTotals(count(c), sum(c.accounts), sum(c.interest), sum(c.fees)) " +
+            "from AccrualChunkEntity c where c.period = :period")
+    AccrualTotals sumByPeriod(@Param("period") String period);
+}
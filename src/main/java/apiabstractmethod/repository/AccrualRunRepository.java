@@ -0,0 +1,13 @@
+package apiabstractmethod.repository;
+
+import apiabstractmethod.model.entity.AccrualRunEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccrualRunRepository extends JpaRepository<AccrualRunEntity, String> {
+
+    List<AccrualRunEntity> findByCompletedAtIsNull();
+}
@@ -0,0 +1,20 @@
+package apiabstractmethod.repository;
+
+import apiabstractmethod.model.entity.LedgerEntryEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntryEntity, Long> {
+
+    Optional<LedgerEntryEntity> findTopByAccountNumberOrderBySequenceDesc(String accountNumber);
+
+    @Query("select distinct e.accountNumber from LedgerEntryEntity e, AccountEntity a " +
+            "where a.accountNumber = e.accountNumber and e.sequence > a.ledgerSequence")
+    List<String> findAccountNumbersBehindSnapshot(Pageable pageable);
+}
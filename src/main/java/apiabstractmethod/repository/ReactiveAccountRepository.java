@@ -0,0 +1,28 @@
+package apiabstractmethod.repository;
+
+import apiabstractmethod.model.entity.AccountRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface ReactiveAccountRepository extends R2dbcRepository<AccountRow, Long> {
+    Mono<AccountRow> findByAccountNumber(String accountNumber);
+
+    Flux<AccountRow> findByIdGreaterThan(Long afterId, Pageable pageable);
+
+    @Query("SELECT NEXT VALUE FOR accounts_seq")
+    Mono<Long> nextId();
+
+    @Modifying
+    @Query("UPDATE accounts SET balance = :balance, version = version + 1 WHERE id = :id AND version = :version")
+    Mono<Integer> updateBalanceIfVersion(@Param("id") Long id, @Param("balance") BigDecimal balance,
+                                         @Param("version") Long version);
+}
@@ -0,0 +1,33 @@
+package apiabstractmethod.repository;
+
+import apiabstractmethod.model.entity.TransactionHistoryRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Repository
+public interface ReactiveTransactionHistoryRepository extends R2dbcRepository<TransactionHistoryRow, Long> {
+
+    @Query("SELECT * FROM transaction_history WHERE account_number = :accountNumber AND occurred_at >= :from " +
+            "AND (occurred_at, id) < (:beforeTime, :beforeId) ORDER BY occurred_at DESC, id DESC LIMIT :size")
+    Flux<TransactionHistoryRow> findPage(@Param("accountNumber") String accountNumber, @Param("from") Instant from,
+                                         @Param("beforeTime") Instant beforeTime, @Param("beforeId") long beforeId,
+                                         @Param("size") int size);
+
+    /**
+     * Inserts a record with an id taken straight from the sequence, in the same round trip.
+     */
+    @Modifying
+    @Query("INSERT INTO transaction_history (id, account_number, transaction_type, amount, balance_after, occurred_at) " +
+            "VALUES (NEXT VALUE FOR transaction_history_seq, :accountNumber, :transactionType, :amount, :balanceAfter, :occurredAt)")
+    Mono<Integer> insert(@Param("accountNumber") String accountNumber, @Param("transactionType") String transactionType,
+                         @Param("amount") BigDecimal amount, @Param("balanceAfter") BigDecimal balanceAfter,
+                         @Param("occurredAt") Instant occurredAt);
+}
@@ -0,0 +1,27 @@
+package apiabstractmethod.repository;
+
+import apiabstractmethod.model.entity.TransactionHistoryEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TransactionHistoryRepository extends JpaRepository<TransactionHistoryEntity, Long> {
+
+    /**
+     * Returns the records of an account from the given time onwards that come strictly before
+     * the (time, id) cursor, newest first. The row-value comparison lets the database seek in
+     * the (accountNumber, occurredAt, id) index and read only the rows it returns.
+     */
+    @Query("select h from TransactionHistoryEntity h where h.accountNumber = :accountNumber " +
+            "and h.occurredAt >= :from and (h.occurredAt, h.id) < (:beforeTime, :beforeId) " +
+            "order by h.occurredAt desc, h.id desc")
+    List<TransactionHistoryEntity> findPage(@Param("accountNumber") String accountNumber, @Param("from") Instant from,
+                                            @Param("beforeTime") Instant beforeTime, @Param("beforeId") long beforeId,
+                                            Limit limit);
+}
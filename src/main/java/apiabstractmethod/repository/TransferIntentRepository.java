@@ -0,0 +1,14 @@
+package apiabstractmethod.repository;
+
+import apiabstractmethod.model.entity.TransferIntentEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TransferIntentRepository extends JpaRepository<TransferIntentEntity, String> {
+
+    List<TransferIntentEntity> findByStatusAndCreatedAtBefore(TransferIntentEntity.Status status, Instant createdBefore);
+}
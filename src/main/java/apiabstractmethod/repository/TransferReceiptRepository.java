@@ -0,0 +1,13 @@
+package apiabstractmethod.repository;
+
+import apiabstractmethod.model.entity.TransferReceiptEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TransferReceiptRepository extends JpaRepository<TransferReceiptEntity, Long> {
+
+    Optional<TransferReceiptEntity> findByIntentId(String intentId);
+}
@@ -0,0 +1,22 @@
+package apiabstractmethod.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request object for processing a batch of financial transactions in one unit of work")
+public class TransactionBatchRequest {
+
+    @NotEmpty(message = "At least one transaction is required")
+    @Valid
+    @Schema(description = "Transactions to process, in order", required = true)
+    private List<TransactionRequest> transactions;
+}
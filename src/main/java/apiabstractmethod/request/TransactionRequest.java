@@ -1,10 +1,12 @@
 package apiabstractmethod.request;
 
+import apiabstractmethod.model.TransactionType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSetter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -12,13 +14,12 @@ import java.math.BigDecimal;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
+@TransactionTypeRequired
 @Schema(description = "Request object for processing financial transactions")
 public class TransactionRequest {
 
-    @NotBlank(message = "Transaction type is required")
-    @Schema(description = "Type of transaction (deposit, withdrawal)", example = "deposit", required = true)
-    private String transactionType;
+    @Schema(description = "Type of transaction (deposit, withdrawal, transfer), case-insensitive", example = "deposit", required = true)
+    private TransactionType transactionType;
 
     @NotBlank(message = "Account number is required")
     @Schema(description = "Account number for the transaction", example = "ACC123456", required = true)
@@ -28,4 +29,45 @@ public class TransactionRequest {
     @Positive(message = "Amount must be positive")
     @Schema(description = "Amount for the transaction", example = "100.00", required = true)
     private BigDecimal amount;
+
+    @Schema(description = "Account number credited by a transfer; required for transfers only", example = "ACC654321")
+    private String targetAccountNumber;
+
+    /**
+     * The type name the request was sent with when it names no supported type, kept so that
+     * processing can reject the request with that name.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private String unsupportedTransactionType;
+
+    public TransactionRequest(TransactionType transactionType, String accountNumber, BigDecimal amount,
+                              String targetAccountNumber) {
+        this.transactionType = transactionType;
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+        this.targetAccountNumber = targetAccountNumber;
+    }
+
+    public TransactionRequest(TransactionType transactionType, String accountNumber, BigDecimal amount) {
+        this(transactionType, accountNumber, amount, null);
+    }
+
+    /**
+     * Resolves the type name of a request body without failing on a name the API does not
+     * support, so one such item does not make a whole batch unreadable.
+     */
+    @JsonSetter("transactionType")
+    public void setTransactionTypeName(String name) {
+        this.transactionType = TransactionType.find(name);
+        this.unsupportedTransactionType = transactionType == null ? name : null;
+    }
+
+    /**
+     * @return The name of the request's type, as sent when it is not supported, or null if none was given
+     */
+    @JsonIgnore
+    public String getTransactionTypeName() {
+        return transactionType != null ? transactionType.name() : unsupportedTransactionType;
+    }
 }
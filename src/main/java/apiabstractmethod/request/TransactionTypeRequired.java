@@ -0,0 +1,43 @@
+package apiabstractmethod.request;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires a transaction request to name a type. A type the API does not support passes, so that
+ * it is rejected when the request is processed, as one FAILED item of a batch rather than the
+ * whole batch. The violation is reported on the transactionType field.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = TransactionTypeRequired.Validator.class)
+public @interface TransactionTypeRequired {
+
+    String message() default "Transaction type is required";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validator implements ConstraintValidator<TransactionTypeRequired, TransactionRequest> {
+
+        @Override
+        public boolean isValid(TransactionRequest request, ConstraintValidatorContext context) {
+            if (request == null || request.getTransactionTypeName() != null) {
+                return true;
+            }
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(context.getDefaultConstraintMessageTemplate())
+                    .addPropertyNode("transactionType")
+                    .addConstraintViolation();
+            return false;
+        }
+    }
+}
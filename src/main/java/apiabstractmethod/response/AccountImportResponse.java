@@ -0,0 +1,27 @@
+package apiabstractmethod.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk account import")
+public class AccountImportResponse {
+
+    @Schema(description = "Number of accounts created", example = "999998")
+    private long imported;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private long failed;
+
+    @Schema(description = "The rejected rows, in the order they were read, up to the configured limit")
+    private List<AccountImportRowError> errors;
+
+    @Schema(description = "Whether more rows were rejected than are listed in errors", example = "false")
+    private boolean errorsTruncated;
+}
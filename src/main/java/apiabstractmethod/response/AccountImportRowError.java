@@ -0,0 +1,22 @@
+package apiabstractmethod.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A row of an account import that was not imported")
+public class AccountImportRowError {
+
+    @Schema(description = "Line of the request body the row was read from, starting at 1", example = "42")
+    private long line;
+
+    @Schema(description = "Account number of the row, if it could be read", example = "ACC123456")
+    private String accountNumber;
+
+    @Schema(description = "Why the row was rejected", example = "Initial balance must be positive")
+    private String message;
+}
@@ -0,0 +1,21 @@
+package apiabstractmethod.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of bank accounts, ordered by id")
+public class AccountPageResponse {
+
+    @Schema(description = "Accounts in this page")
+    private List<AccountResponse> accounts;
+
+    @Schema(description = "Value to pass as afterId to fetch the next page, or null on the last page", example = "100")
+    private Long nextAfterId;
+}
@@ -0,0 +1,46 @@
+package apiabstractmethod.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Progress of the interest and fee accrual for a period")
+public class AccrualRunResponse {
+
+    @Schema(description = "Period the run accrues", example = "2026-10")
+    private String period;
+
+    @Schema(description = "NOT_STARTED, RUNNING, INCOMPLETE (interrupted, resumed by the next start) or COMPLETED", example = "RUNNING")
+    private String status;
+
+    @Schema(description = "Number of id-range chunks the accounts are split into", example = "2000")
+    private long chunks;
+
+    @Schema(description = "Number of chunks accrued and checkpointed so far", example = "1200")
+    private long chunksCompleted;
+
+    @Schema(description = "Number of accounts credited interest or charged a fee so far", example = "598000")
+    private long accounts;
+
+    @Schema(description = "Total interest credited so far", example = "149500.00")
+    private BigDecimal interest;
+
+    @Schema(description = "Total fees charged so far", example = "12500.00")
+    private BigDecimal fees;
+
+    @Schema(description = "When the run started, or null if it has not")
+    private Instant startedAt;
+
+    @Schema(description = "When the last chunk was accrued, or null until then")
+    private Instant completedAt;
+
+    @Schema(description = "Why the last run of the period in this instance stopped before completing, or null")
+    private String error;
+}
@@ -0,0 +1,28 @@
+package apiabstractmethod.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Event sent when a committed transaction changed the balance of an account")
+public class BalanceChangedEvent {
+
+    @Schema(description = "Account whose balance changed", example = "ACC123456")
+    private String accountNumber;
+
+    @Schema(description = "Balance of the account after the change", example = "1500.00")
+    private BigDecimal balance;
+
+    @Schema(description = "Version of the account after the change; a change with a lower version than one already received is older", example = "42")
+    private long version;
+
+    @Schema(description = "When the change was published", example = "2024-05-01T12:00:00Z")
+    private Instant timestamp;
+}
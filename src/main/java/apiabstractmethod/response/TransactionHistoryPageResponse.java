@@ -0,0 +1,24 @@
+package apiabstractmethod.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of the transaction history of an account, newest first")
+public class TransactionHistoryPageResponse {
+
+    @Schema(description = "Account the transactions were made on", example = "ACC123456")
+    private String accountNumber;
+
+    @Schema(description = "Transactions in this page")
+    private List<TransactionRecordResponse> transactions;
+
+    @Schema(description = "Value to pass as cursor to fetch the next page, or null on the last page")
+    private String nextCursor;
+}
@@ -0,0 +1,31 @@
+package apiabstractmethod.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One transaction in the history of an account")
+public class TransactionRecordResponse {
+
+    @Schema(description = "Unique identifier of the record", example = "1")
+    private Long id;
+
+    @Schema(description = "Type of transaction; transfers appear as TRANSFER_OUT and TRANSFER_IN", example = "DEPOSIT")
+    private String transactionType;
+
+    @Schema(description = "Amount of the transaction", example = "100.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Running balance of the account after the transaction", example = "1600.00")
+    private BigDecimal balanceAfter;
+
+    @Schema(description = "When the transaction was made", example = "2024-05-01T12:00:00Z")
+    private Instant occurredAt;
+}
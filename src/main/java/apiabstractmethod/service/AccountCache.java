@@ -0,0 +1,32 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.model.entity.AccountEntity;
+
+import java.util.Optional;
+
+public interface AccountCache {
+
+    /**
+     * Returns the account with the given number, loading it from the repository on a miss.
+     * The returned entity is a detached copy that callers may modify freely.
+     *
+     * @param accountNumber The account number
+     * @return The account, or empty if it does not exist
+     */
+    Optional<AccountEntity> get(String accountNumber);
+
+    /**
+     * Replaces the cached state of an account after a committed write, unless a newer version
+     * of the account is already cached.
+     *
+     * @param account The account as persisted
+     */
+    void put(AccountEntity account);
+
+    /**
+     * Drops the cached state of an account so the next read goes to the repository.
+     *
+     * @param accountNumber The account number
+     */
+    void evict(String accountNumber);
+}
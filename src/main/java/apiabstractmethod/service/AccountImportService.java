@@ -0,0 +1,25 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.response.AccountImportResponse;
+
+import java.io.InputStream;
+
+public interface AccountImportService {
+
+    /**
+     * Creates accounts from CSV read as a stream. The first line is a header naming the
+     * accountNumber, accountType, initialBalance and ownerName columns, in any order.
+     *
+     * @param body The CSV document
+     * @return How many accounts were created, and why the other rows were rejected
+     */
+    AccountImportResponse importCsv(InputStream body);
+
+    /**
+     * Creates accounts from newline-delimited JSON read as a stream, one account request per line.
+     *
+     * @param body The NDJSON document
+     * @return How many accounts were created, and why the other rows were rejected
+     */
+    AccountImportResponse importNdjson(InputStream body);
+}
@@ -0,0 +1,26 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.response.AccountPageResponse;
+import apiabstractmethod.response.AccountResponse;
+
+import java.util.function.Consumer;
+
+public interface AccountQueryService {
+
+    /**
+     * Returns the accounts whose id is greater than the given one, in id order.
+     *
+     * @param afterId The id of the last account of the previous page, or 0 for the first page
+     * @param size    The maximum number of accounts to return
+     * @return The page, with the cursor for the next one
+     */
+    AccountPageResponse findPage(long afterId, int size);
+
+    /**
+     * Reads every account incrementally and hands each one to the consumer as soon as it is
+     * mapped, without holding the full result in memory.
+     *
+     * @param consumer Receives each account in id order
+     */
+    void forEachAccount(Consumer<AccountResponse> consumer);
+}
@@ -0,0 +1,39 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.response.AccrualRunResponse;
+
+public interface AccrualService {
+
+    /**
+     * Starts the interest and fee accrual of a period in the background and returns right away.
+     * If an earlier run of the period was interrupted, only the chunks it did not finish are
+     * accrued. A period is accrued at most once, so starting a completed period changes nothing.
+     *
+     * @param period The period to accrue, such as 2026-10
+     * @return The progress of the run
+     */
+    AccrualRunResponse start(String period);
+
+    /**
+     * Accrues a period like {@link #start(String)}, but returns only once every chunk is done.
+     *
+     * @param period The period to accrue
+     * @return The progress of the completed run
+     */
+    AccrualRunResponse run(String period);
+
+    /**
+     * Returns the progress of the accrual of a period.
+     *
+     * @param period The period
+     * @return The progress, NOT_STARTED if the period was never started
+     */
+    AccrualRunResponse status(String period);
+
+    /**
+     * Returns the period a run started now accrues: the current month in the configured zone.
+     *
+     * @return The current period, such as 2026-10
+     */
+    String currentPeriod();
+}
@@ -0,0 +1,45 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.model.entity.AccountEntity;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface BalanceEngine {
+
+    /**
+     * Applies a transaction to the in-memory state of an account.
+     *
+     * @param factory       The factory that creates the transaction to apply
+     * @param accountNumber The account on which the transaction is performed
+     * @param amount        The transaction amount
+     * @return A snapshot of the account after the transaction
+     */
+    AccountEntity apply(TransactionFactory factory, String accountNumber, BigDecimal amount);
+
+    /**
+     * Applies a transaction that moves money between two accounts, atomically with respect to
+     * other transfers and to the write-behind flush.
+     *
+     * @param factory                   The factory whose rules are applied to both accounts
+     * @param accountNumber             The source account
+     * @param counterpartyAccountNumber The target account
+     * @param amount                    The transaction amount
+     * @return A snapshot of the source account after the transaction
+     */
+    AccountEntity applyTransfer(CounterpartyTransactionFactory factory, String accountNumber,
+                                String counterpartyAccountNumber, BigDecimal amount);
+
+    /**
+     * Returns the current balance held in memory for an account, if it is loaded.
+     *
+     * @param accountNumber The account number
+     * @return The in-memory balance, or empty if the account is not held by the engine
+     */
+    Optional<BigDecimal> currentBalance(String accountNumber);
+
+    /**
+     * Writes every balance changed since the last flush back to the repository.
+     */
+    void flush();
+}
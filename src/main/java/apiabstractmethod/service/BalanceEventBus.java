@@ -0,0 +1,50 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.response.BalanceChangedEvent;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of balance changes to subscribers such as server-sent event streams.
+ */
+public interface BalanceEventBus {
+
+    /**
+     * Publishes the balance of an account a transaction just changed. Inside a database
+     * transaction the event is held back until it commits, and dropped if it rolls back; it then
+     * carries the balance and version the account holds at commit.
+     *
+     * @param account The account holding its new balance and version
+     */
+    void publish(AccountEntity account);
+
+    /**
+     * Publishes the balance of an account a transaction just changed, for writers that do not
+     * advance the account's {@code @Version} on every change.
+     *
+     * @param account The account holding its new balance
+     * @param version Grows with every change of the account
+     */
+    void publish(AccountEntity account, long version);
+
+    /**
+     * Registers a listener that receives balance changes on a thread of the bus. Changes waiting
+     * for a slow listener are coalesced to the latest balance of each account, and a change older
+     * than one already delivered for its account is not delivered. A listener that falls further
+     * behind than its buffer allows, or that throws, is dropped.
+     *
+     * @param accountNumbers The accounts to receive changes for, or an empty set for every account
+     * @param listener       Receives each change
+     * @param onClose        Called once when the subscription ends, whether closed or dropped
+     * @return A handle that ends the subscription when closed
+     */
+    Subscription subscribe(Set<String> accountNumbers, Consumer<BalanceChangedEvent> listener, Runnable onClose);
+
+    interface Subscription extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
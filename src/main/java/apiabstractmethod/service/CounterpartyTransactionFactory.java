@@ -0,0 +1,34 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.model.entity.AccountEntity;
+
+import java.math.BigDecimal;
+
+/**
+ * A factory for transactions that move money between two accounts. {@link #apply(long, long)}
+ * applies the rules for the source account and {@link #applyToCounterparty(long, long)} those
+ * for the target account.
+ */
+public interface CounterpartyTransactionFactory extends TransactionFactory {
+
+    Transaction createTransaction(BigDecimal amount, AccountEntity account, AccountEntity counterparty);
+
+    /**
+     * Applies this transaction type directly to both accounts, without creating a Transaction.
+     *
+     * @param amount       The transaction amount
+     * @param account      The source account to update in place
+     * @param counterparty The target account to update in place
+     * @return The updated source account
+     */
+    AccountEntity execute(BigDecimal amount, AccountEntity account, AccountEntity counterparty);
+
+    /**
+     * Applies this transaction type to the counterparty balance held in scaled long minor units.
+     *
+     * @param balance The current counterparty balance in minor units
+     * @param amount  The transaction amount in minor units
+     * @return The new counterparty balance in minor units
+     */
+    long applyToCounterparty(long balance, long amount);
+}
@@ -0,0 +1,31 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.model.entity.AccountEntity;
+
+import java.math.BigDecimal;
+
+public interface CrossShardTransferService {
+
+    /**
+     * Moves money between two accounts on different shards, which no single local transaction
+     * can span. The debit is committed together with a durable record of the transfer, so a
+     * transfer interrupted before its credit is settled later instead of losing the money.
+     *
+     * @param factory                   The factory whose rules debit the source and credit the target
+     * @param accountNumber             The source account
+     * @param counterpartyAccountNumber The target account, on another shard
+     * @param amount                    The transaction amount
+     * @return A snapshot of the source account after the debit
+     */
+    AccountEntity transfer(CounterpartyTransactionFactory factory, String accountNumber,
+                           String counterpartyAccountNumber, BigDecimal amount);
+
+    /**
+     * Settles the transfers that are still pending after the recovery delay: a transfer whose
+     * target was credited is marked completed, and any other is cancelled on the target shard and
+     * credited back to its source.
+     *
+     * @return The number of transfers settled
+     */
+    int recover();
+}
@@ -0,0 +1,25 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs a transaction at most once per client and idempotency key. A repeated key returns the
+     * stored response of the first execution; a repeated key that arrives while the first
+     * execution is still running waits for it and returns the same response. Keys of different
+     * clients never collide.
+     *
+     * @param clientId       Identifies the caller: its authenticated principal, or its address
+     * @param idempotencyKey The client-supplied key
+     * @param request        The transaction request, which must match the one first sent with the key;
+     *                       amounts match when they are numerically equal, whatever their scale
+     * @param execution      Processes the transaction
+     * @return The response of the single execution for this key
+     */
+    TransactionResponse execute(String clientId, String idempotencyKey, TransactionRequest request,
+                                Supplier<TransactionResponse> execution);
+}
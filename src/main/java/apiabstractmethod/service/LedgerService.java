@@ -0,0 +1,48 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.model.entity.AccountEntity;
+
+import java.math.BigDecimal;
+
+public interface LedgerService {
+
+    /**
+     * Executes a transaction against the current balance of an account and appends the result
+     * to the ledger. The account row itself is not updated; its balance is projected later.
+     * Must be called inside a database transaction.
+     *
+     * @param factory       The factory that creates the transaction to append
+     * @param accountNumber The account on which the transaction is performed
+     * @param amount        The transaction amount
+     * @return A snapshot of the account after the transaction
+     */
+    AccountEntity append(TransactionFactory factory, String accountNumber, BigDecimal amount);
+
+    /**
+     * Executes a transaction between two accounts and appends one entry per account, in account
+     * id order. Must be called inside a database transaction.
+     *
+     * @param factory                   The factory that creates the transaction to append
+     * @param accountNumber             The source account
+     * @param counterpartyAccountNumber The target account
+     * @param amount                    The transaction amount
+     * @return A snapshot of the source account after the transaction
+     */
+    AccountEntity appendTransfer(CounterpartyTransactionFactory factory, String accountNumber,
+                                 String counterpartyAccountNumber, BigDecimal amount);
+
+    /**
+     * Returns the current balance of an account: its projected snapshot plus any ledger
+     * entries appended after it.
+     *
+     * @param account The account as stored, carrying its snapshot balance and sequence
+     * @return The current balance
+     */
+    BigDecimal currentBalance(AccountEntity account);
+
+    /**
+     * Moves the balance snapshot of every account appended to since the last projection up to
+     * its latest entry.
+     */
+    void project();
+}
@@ -0,0 +1,18 @@
+package apiabstractmethod.service;
+
+import java.util.Collection;
+
+public interface RateLimiter {
+
+    /**
+     * Takes one token per transaction from the global bucket and the client's bucket, and one
+     * token per occurrence of each account from that account's bucket. Takes nothing if any bucket
+     * has too few tokens.
+     *
+     * @param clientId       Identifies the caller: its authenticated principal, or its address
+     * @param accountNumbers The account each transaction is made on, one entry per transaction
+     * @throws apiabstractmethod.exception.RateLimitExceededException If a bucket has too few tokens
+     * @throws IllegalArgumentException If the request needs more tokens than a bucket can hold
+     */
+    void acquire(String clientId, Collection<String> accountNumbers);
+}
@@ -0,0 +1,47 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.request.AccountRequest;
+import apiabstractmethod.response.AccountPageResponse;
+import apiabstractmethod.response.AccountResponse;
+import apiabstractmethod.response.TransactionHistoryPageResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Non-blocking counterpart of the account endpoints' data access, backed by R2DBC.
+ */
+public interface ReactiveAccountService {
+
+    Mono<AccountResponse> createAccount(AccountRequest request);
+
+    Mono<AccountResponse> findByAccountNumber(String accountNumber);
+
+    /**
+     * Returns the accounts whose id is greater than the given one, in id order.
+     *
+     * @param afterId The id of the last account of the previous page, or 0 for the first page
+     * @param size    The maximum number of accounts to return
+     * @return The page, with the cursor for the next one
+     */
+    Mono<AccountPageResponse> findPage(long afterId, int size);
+
+    /**
+     * Emits every account in id order, reading rows from the database only as fast as the
+     * subscriber requests them.
+     */
+    Flux<AccountResponse> findAll();
+
+    /**
+     * Returns the transactions made on an account within a time range, newest first.
+     *
+     * @param accountNumber The account number
+     * @param from          The inclusive start of the range, or null for no start
+     * @param to            The exclusive end of the range, or null for no end
+     * @param cursor        The nextCursor of the previous page, or null for the first page
+     * @param size          The maximum number of transactions to return
+     * @return The page, with the cursor for the next one, or empty if the account does not exist
+     */
+    Mono<TransactionHistoryPageResponse> findHistory(String accountNumber, Instant from, Instant to, String cursor, int size);
+}
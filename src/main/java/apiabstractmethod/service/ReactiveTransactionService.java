@@ -0,0 +1,25 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link TransactionService}, executing the same
+ * {@link TransactionFactory} rules against accounts read and written through R2DBC.
+ */
+public interface ReactiveTransactionService {
+
+    Mono<TransactionResponse> processTransaction(TransactionRequest request);
+
+    /**
+     * Processes the requests one after another, emitting one result per request in order. A
+     * request that fails is reported as FAILED without stopping the rest.
+     */
+    Flux<TransactionResponse> processBatch(List<TransactionRequest> requests);
+
+    String[] getAvailableTransactionTypes();
+}
@@ -0,0 +1,51 @@
+package apiabstractmethod.service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface ShardRouter {
+
+    /**
+     * Returns the number of databases accounts are spread across.
+     *
+     * @return The shard count, 1 when sharding is disabled
+     */
+    int shardCount();
+
+    /**
+     * Returns the shard that holds an account.
+     *
+     * @param accountNumber The account number
+     * @return The shard index, between 0 and {@link #shardCount()} - 1
+     */
+    int shardOf(String accountNumber);
+
+    /**
+     * Runs a unit of work against one shard. Every connection the work obtains, including the one
+     * a transaction started inside it binds, comes from that shard's database.
+     *
+     * @param shard The shard index
+     * @param work  The unit of work
+     * @return The result of the work
+     */
+    <T> T onShard(int shard, Supplier<T> work);
+
+    /**
+     * Runs a unit of work against the shard that holds an account.
+     *
+     * @param accountNumber The account number
+     * @param work          The unit of work
+     * @return The result of the work
+     */
+    default <T> T onShardOf(String accountNumber, Supplier<T> work) {
+        return onShard(shardOf(accountNumber), work);
+    }
+
+    /**
+     * Runs a unit of work once against every shard, in parallel when there is more than one.
+     *
+     * @param work The unit of work
+     * @return The result from each shard, in shard order
+     */
+    <T> List<T> onEachShard(Supplier<T> work);
+}
@@ -1,11 +1,54 @@
 package apiabstractmethod.service;
 
+import apiabstractmethod.model.TransactionType;
 import apiabstractmethod.model.entity.AccountEntity;
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface TransactionFactory {
 
     Transaction createTransaction(BigDecimal amount, AccountEntity account);
 
-    String getTransactionType();
+    /**
+     * Applies a transaction of this type directly to an account, with the same rules as the
+     * Transaction it creates but without creating one. Factories hold no per-request state, so
+     * this is safe to call concurrently on the shared factory bean.
+     *
+     * @param amount  The transaction amount
+     * @param account The account to update in place
+     * @return The updated account
+     */
+    AccountEntity execute(BigDecimal amount, AccountEntity account);
+
+    /**
+     * Applies a transaction of this type to a balance held in scaled long minor units, with the
+     * same rules as the Transaction it creates but without allocating.
+     *
+     * @param balance The current balance in minor units
+     * @param amount  The transaction amount in minor units
+     * @return The new balance in minor units
+     */
+    long apply(long balance, long amount);
+
+    TransactionType getTransactionType();
+
+    /**
+     * Indexes factories by the ordinal of their transaction type.
+     *
+     * @param factories The registered factories
+     * @return The factory of every type, or null for a type no factory handles
+     * @throws IllegalStateException if two factories handle the same type
+     */
+    static TransactionFactory[] byTransactionType(List<TransactionFactory> factories) {
+        TransactionFactory[] byType = new TransactionFactory[TransactionType.values().length];
+        for (TransactionFactory factory : factories) {
+            int index = factory.getTransactionType().ordinal();
+            if (byType[index] != null) {
+                throw new IllegalStateException("Duplicate transaction factory for " + factory.getTransactionType()
+                        + ": " + byType[index].getClass().getName() + " and " + factory.getClass().getName());
+            }
+            byType[index] = factory;
+        }
+        return byType;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.TransactionHistoryEntity;
+import apiabstractmethod.response.TransactionHistoryPageResponse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+
+public interface TransactionHistoryService {
+
+    /**
+     * Records a transaction on an account, as part of the current database transaction so it is
+     * committed or rolled back together with the balance change.
+     *
+     * @param account         The account holding the balance the transaction left it with
+     * @param transactionType The type of the transaction
+     * @param amount          The amount of the transaction
+     */
+    void record(AccountEntity account, String transactionType, BigDecimal amount);
+
+    /**
+     * Records transactions that were made earlier and written behind, such as those of the
+     * in-memory balance engine.
+     */
+    void recordAll(Collection<TransactionHistoryEntity> records);
+
+    /**
+     * Returns the transactions made on an account within a time range, newest first.
+     *
+     * @param accountNumber The account number
+     * @param from          The inclusive start of the range, or null for no start
+     * @param to            The exclusive end of the range, or null for no end
+     * @param cursor        The nextCursor of the previous page, or null for the first page
+     * @param size          The maximum number of transactions to return
+     * @return The page, with the cursor for the next one
+     */
+    TransactionHistoryPageResponse findHistory(String accountNumber, Instant from, Instant to, String cursor, int size);
+}
@@ -0,0 +1,21 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.model.entity.AccountEntity;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+public interface TransactionPipeline {
+
+    /**
+     * Queues a transaction on the partition that owns the account. Transactions on the same
+     * account are executed in submission order by a single writer.
+     *
+     * @param factory       The factory that creates the transaction to apply
+     * @param accountNumber The account on which the transaction is performed
+     * @param amount        The transaction amount
+     * @return A future completed with the account after the transaction once it is committed,
+     * or exceptionally if the transaction was rejected or could not be committed
+     */
+    CompletableFuture<AccountEntity> submit(TransactionFactory factory, String accountNumber, BigDecimal amount);
+}
@@ -3,9 +3,13 @@ package apiabstractmethod.service;
 import apiabstractmethod.request.TransactionRequest;
 import apiabstractmethod.response.TransactionResponse;
 
+import java.util.List;
+
 public interface TransactionService {
 
     TransactionResponse processTransaction(TransactionRequest request);
 
+    List<TransactionResponse> processBatch(List<TransactionRequest> requests);
+
     String[] getAvailableTransactionTypes();
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package apiabstractmethod.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface WriteAheadLog {
+
+    /**
+     * The balance an operation left on one account, in minor units.
+     */
+    record Entry(String accountNumber, long balance) {
+    }
+
+    /**
+     * Appends one record holding the balances an operation left on its accounts. The record is
+     * replayed as a whole or not at all.
+     *
+     * @param entries The resulting balance of every account the operation changed
+     * @return A future completed once the record is on stable storage
+     */
+    CompletableFuture<Void> append(Entry... entries);
+
+    /**
+     * Starts a new segment, so that every record appended before this call is in a segment below
+     * the returned boundary.
+     *
+     * @return The checkpoint boundary, to pass to {@link #release(long)} once those records are persisted elsewhere
+     */
+    long checkpoint();
+
+    /**
+     * Deletes the segments below a checkpoint boundary.
+     *
+     * @param checkpoint A boundary returned by {@link #checkpoint()}
+     */
+    void release(long checkpoint);
+
+    /**
+     * Reads the segments left by the previous run, stopping at the first torn or corrupt record.
+     *
+     * @return The latest logged balance of every account, in minor units
+     */
+    Map<String, Long> recover();
+
+    /**
+     * Tells whether a write or sync has failed. After a failure nothing more can be made durable,
+     * and the instance must be restarted to recover from the log.
+     *
+     * @return true once the log has failed
+     */
+    boolean isFailed();
+}
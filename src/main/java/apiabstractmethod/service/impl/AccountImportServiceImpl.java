@@ -0,0 +1,284 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.mapper.AccountMapper;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.request.AccountRequest;
+import apiabstractmethod.response.AccountImportResponse;
+import apiabstractmethod.response.AccountImportRowError;
+import apiabstractmethod.service.AccountImportService;
+import apiabstractmethod.service.ShardRouter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads an import line by line, so the body is never held in memory, and inserts valid rows in
+ * batches. Each batch is split by shard and written in one transaction per shard. Account ids
+ * come from a pooled sequence, so Hibernate can send the inserts as JDBC batches. Rows that are
+ * malformed, fail validation or reuse an existing account number are reported and skipped.
+ */
+@Service
+public class AccountImportServiceImpl implements AccountImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("accountNumber", "accountType", "initialBalance", "ownerName");
+
+    private final AccountRepository accountRepository;
+    private final AccountMapper accountMapper;
+    private final ShardRouter shardRouter;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public AccountImportServiceImpl(AccountRepository accountRepository, AccountMapper accountMapper,
+                                    ShardRouter shardRouter, Validator validator, EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                    @Value("${bank.import.batch-size:1000}") int batchSize,
+                                    @Value("${bank.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.accountRepository = accountRepository;
+        this.accountMapper = accountMapper;
+        this.shardRouter = shardRouter;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requestReader = objectMapper.readerFor(AccountRequest.class);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public AccountImportResponse importCsv(InputStream body) {
+        try (BufferedReader reader = readerOf(body)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV header is required");
+            }
+            List<String> columns = splitCsvLine(header);
+            int[] positions = CSV_COLUMNS.stream().mapToInt(columns::indexOf).toArray();
+            for (int i = 0; i < positions.length; i++) {
+                if (positions[i] < 0) {
+                    throw new IllegalArgumentException("CSV header must contain the columns " + String.join(", ", CSV_COLUMNS));
+                }
+            }
+            return importRows(reader, 1, line -> {
+                List<String> fields = splitCsvLine(line);
+                if (fields.size() != columns.size()) {
+                    throw new IllegalArgumentException("Expected " + columns.size() + " fields but found " + fields.size());
+                }
+                return new AccountRequest(
+                        fields.get(positions[0]),
+                        fields.get(positions[1]),
+                        parseAmount(fields.get(positions[2])),
+                        fields.get(positions[3]));
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public AccountImportResponse importNdjson(InputStream body) {
+        try (BufferedReader reader = readerOf(body)) {
+            return importRows(reader, 0, requestReader::readValue);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface RowParser {
+        AccountRequest parse(String line) throws JsonProcessingException;
+    }
+
+    private record Row(long line, AccountRequest request) {
+    }
+
+    private AccountImportResponse importRows(BufferedReader reader, long linesRead, RowParser parser) throws IOException {
+        Report report = new Report();
+        List<Row> batch = new ArrayList<>(batchSize);
+        long lineNumber = linesRead;
+        for (String line; (line = reader.readLine()) != null; ) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            AccountRequest request;
+            try {
+                request = parser.parse(line);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                report.reject(lineNumber, null, "Malformed row: " + e.getMessage());
+                continue;
+            }
+            Set<ConstraintViolation<AccountRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                report.reject(lineNumber, request.getAccountNumber(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            batch.add(new Row(lineNumber, request));
+            if (batch.size() == batchSize) {
+                insert(batch, report);
+                batch.clear();
+            }
+        }
+        insert(batch, report);
+        return report.toResponse();
+    }
+
+    private void insert(List<Row> batch, Report report) {
+        Map<Integer, List<Row>> byShard = new HashMap<>();
+        Set<String> accountNumbers = new HashSet<>();
+        for (Row row : batch) {
+            if (accountNumbers.add(row.request().getAccountNumber())) {
+                byShard.computeIfAbsent(shardRouter.shardOf(row.request().getAccountNumber()), shard -> new ArrayList<>()).add(row);
+            } else {
+                report.reject(row.line(), row.request().getAccountNumber(), "Account number appears more than once in the import");
+            }
+        }
+        byShard.forEach((shard, rows) -> shardRouter.onShard(shard, () -> {
+            insertOnShard(rows, report);
+            return null;
+        }));
+    }
+
+    private void insertOnShard(List<Row> rows, Report report) {
+        Set<String> existing = new HashSet<>(accountRepository.findExistingAccountNumbers(
+                rows.stream().map(row -> row.request().getAccountNumber()).toList()));
+        List<Row> accepted = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existing.contains(row.request().getAccountNumber())) {
+                report.reject(row.line(), row.request().getAccountNumber(), "Account number already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+        try {
+            save(accepted);
+            report.imported += accepted.size();
+        } catch (DataIntegrityViolationException e) {
+            // An account was created concurrently; insert the rows one by one to find out which
+            for (Row row : accepted) {
+                try {
+                    save(List.of(row));
+                    report.imported++;
+                } catch (DataIntegrityViolationException duplicate) {
+                    report.reject(row.line(), row.request().getAccountNumber(), "Account number already exists");
+                }
+            }
+        }
+    }
+
+    /**
+     * Persists the rows in one transaction and detaches them, so the persistence context of a
+     * long import stays empty between batches. The flush goes through the repository, so a
+     * duplicate account number surfaces as a {@link DataIntegrityViolationException}.
+     */
+    private void save(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<AccountEntity> entities = rows.stream().map(row -> accountMapper.toEntity(row.request())).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> accountRepository.saveAllAndFlush(entities));
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private static BigDecimal parseAmount(String field) {
+        if (field.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(field.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Initial balance is not a number: " + field);
+        }
+    }
+
+    private static BufferedReader readerOf(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Splits one CSV line into fields. A field may be enclosed in double quotes, in which case
+     * it can contain commas and a doubled quote stands for a literal quote.
+     */
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private final class Report {
+
+        private final List<AccountImportRowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private void reject(long line, String accountNumber, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new AccountImportRowError(line, accountNumber, message));
+            }
+        }
+
+        private AccountImportResponse toResponse() {
+            errors.sort(Comparator.comparingLong(AccountImportRowError::getLine));
+            return new AccountImportResponse(imported, failed, errors, failed > errors.size());
+        }
+    }
+}
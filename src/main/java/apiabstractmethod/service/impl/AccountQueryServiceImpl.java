@@ -0,0 +1,110 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.mapper.AccountMapper;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.response.AccountPageResponse;
+import apiabstractmethod.response.AccountResponse;
+import apiabstractmethod.service.AccountQueryService;
+import apiabstractmethod.service.BalanceEngine;
+import apiabstractmethod.service.LedgerService;
+import apiabstractmethod.service.ShardRouter;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class AccountQueryServiceImpl implements AccountQueryService {
+
+    private static final int SCATTER_PAGE_SIZE = 500;
+
+    private final AccountRepository accountRepository;
+    private final AccountMapper accountMapper;
+    private final EntityManager entityManager;
+    private final ShardRouter shardRouter;
+    private final Optional<BalanceEngine> balanceEngine;
+    private final Optional<LedgerService> ledgerService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AccountQueryServiceImpl(AccountRepository accountRepository, AccountMapper accountMapper,
+                                   EntityManager entityManager, ShardRouter shardRouter,
+                                   Optional<BalanceEngine> balanceEngine, Optional<LedgerService> ledgerService,
+                                   PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.accountMapper = accountMapper;
+        this.entityManager = entityManager;
+        this.shardRouter = shardRouter;
+        this.balanceEngine = balanceEngine;
+        this.ledgerService = ledgerService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Asks every shard, in parallel, for its first {@code size} accounts after the cursor and
+     * merges the answers by id. Any account in the merged page must be among the first
+     * {@code size} of its own shard, so the page is exact.
+     */
+    @Override
+    public AccountPageResponse findPage(long afterId, int size) {
+        List<AccountResponse> accounts = shardRouter.onEachShard(
+                        () -> accountRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size)))
+                .stream()
+                .flatMap(Collection::stream)
+                .sorted(Comparator.comparing(AccountEntity::getId))
+                .limit(size)
+                .map(this::toResponse)
+                .toList();
+        Long nextAfterId = accounts.size() == size ? accounts.get(accounts.size() - 1).getId() : null;
+        return new AccountPageResponse(accounts, nextAfterId);
+    }
+
+    /**
+     * With a single database the accounts are read through one cursor. With several shards the
+     * accounts are read as a sequence of merged pages instead, so memory stays bounded by the
+     * page size times the shard count.
+     */
+    @Override
+    public void forEachAccount(Consumer<AccountResponse> consumer) {
+        if (shardRouter.shardCount() == 1) {
+            readOnlyTransaction.executeWithoutResult(status -> streamAccounts(consumer));
+            return;
+        }
+        Long afterId = 0L;
+        while (afterId != null) {
+            AccountPageResponse page = findPage(afterId, SCATTER_PAGE_SIZE);
+            page.getAccounts().forEach(consumer);
+            afterId = page.getNextAfterId();
+        }
+    }
+
+    /**
+     * Maps an account row to its response with the balance the balance engine or the ledger holds
+     * for it, which may be ahead of the row.
+     */
+    private AccountResponse toResponse(AccountEntity account) {
+        AccountResponse response = accountMapper.toResponse(account);
+        ledgerService.ifPresent(ledger -> response.setBalance(ledger.currentBalance(account)));
+        balanceEngine.flatMap(engine -> engine.currentBalance(account.getAccountNumber()))
+                .ifPresent(response::setBalance);
+        return response;
+    }
+
+    private void streamAccounts(Consumer<AccountResponse> consumer) {
+        try (Stream<AccountEntity> accounts = accountRepository.streamAllByOrderByIdAsc()) {
+            accounts.forEach(account -> {
+                consumer.accept(toResponse(account));
+                entityManager.detach(account);
+            });
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.AccrualTotals;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.AccrualChunkEntity;
+import apiabstractmethod.model.entity.AccrualRunEntity;
+import apiabstractmethod.model.entity.TransactionHistoryEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.repository.AccrualChunkRepository;
+import apiabstractmethod.repository.AccrualRunRepository;
+import apiabstractmethod.response.AccrualRunResponse;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.AccrualService;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.ShardRouter;
+import apiabstractmethod.service.TransactionFactory;
+import apiabstractmethod.service.TransactionHistoryService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Credits interest and charges maintenance fees to every account once per period, at the rate
+ * and fee configured for its account type, through the INTEREST and FEE transaction factories.
+ * <p>
+ * When a run starts, the accounts' id range is cut into fixed chunks, which are accrued in
+ * parallel on a fork-join pool of {@code bank.accrual.parallelism} workers. Each chunk is read,
+ * computed and written in one short transaction: the new balances are sent as one JDBC batch of
+ * conditional updates on the version they were read at, and the chunk's checkpoint row is
+ * committed with them. Live transactions are never locked out for longer than one chunk's
+ * write, and a row they changed in the meantime is simply read and computed again. A run that
+ * was interrupted resumes with the chunks that have no checkpoint, on the next start or when the
+ * application is ready, so no account is accrued twice for a period.
+ */
+@Service
+@ConditionalOnProperty(name = "bank.accrual.enabled", havingValue = "true")
+public class AccrualServiceImpl implements AccrualService {
+
+    private static final String UPDATE_BALANCE_IF_VERSION =
+            "update accounts set balance = ?, version = version + 1 where id = ? and version = ?";
+    private static final Pattern PERIOD = Pattern.compile("[A-Za-z0-9-]{1,32}");
+
+    private final AccountRepository accountRepository;
+    private final AccrualRunRepository accrualRunRepository;
+    private final AccrualChunkRepository accrualChunkRepository;
+    private final TransactionFactory interestFactory;
+    private final TransactionFactory feeFactory;
+    private final TransactionHistoryService transactionHistoryService;
+    private final AccountCache accountCache;
+    private final BalanceEventBus balanceEventBus;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, BigDecimal> interestRates;
+    private final Map<String, BigDecimal> fees;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final int scale;
+    private final ZoneId zone;
+    private final ForkJoinPool pool;
+    private final Map<String, ForkJoinTask<?>> runs = new ConcurrentHashMap<>();
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public AccrualServiceImpl(AccountRepository accountRepository, AccrualRunRepository accrualRunRepository,
+                              AccrualChunkRepository accrualChunkRepository,
+                              InterestTransactionFactory interestFactory, FeeTransactionFactory feeFactory,
+                              TransactionHistoryService transactionHistoryService, AccountCache accountCache,
+                              BalanceEventBus balanceEventBus, ShardRouter shardRouter, DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${bank.accrual.interest-rates:}") List<String> interestRates,
+                              @Value("${bank.accrual.fees:}") List<String> fees,
+                              @Value("${bank.accrual.chunk-size:500}") int chunkSize,
+                              @Value("${bank.accrual.parallelism:2}") int parallelism,
+                              @Value("${bank.accrual.zone:UTC}") ZoneId zone,
+                              @Value("${bank.transactions.retry.max-attempts:8}") int maxAttempts,
+                              @Value("${bank.currency:USD}") Currency currency,
+                              @Value("${bank.balance-engine.enabled:false}") boolean balanceEngineEnabled,
+                              @Value("${bank.ledger.enabled:false}") boolean ledgerEnabled) {
+        if (balanceEngineEnabled || ledgerEnabled) {
+            throw new IllegalStateException("Accrual cannot be combined with the balance engine or the ledger");
+        }
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("bank.accrual.chunk-size and bank.accrual.parallelism must be positive");
+        }
+        this.accountRepository = accountRepository;
+        this.accrualRunRepository = accrualRunRepository;
+        this.accrualChunkRepository = accrualChunkRepository;
+        this.interestFactory = interestFactory;
+        this.feeFactory = feeFactory;
+        this.transactionHistoryService = transactionHistoryService;
+        this.accountCache = accountCache;
+        this.balanceEventBus = balanceEventBus;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.interestRates = parseAmounts("bank.accrual.interest-rates", interestRates);
+        this.fees = parseAmounts("bank.accrual.fees", fees);
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.scale = currency.getDefaultFractionDigits();
+        this.zone = zone;
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            worker.setName("accrual-" + worker.getPoolIndex());
+            return worker;
+        }, null, false);
+    }
+
+    @Override
+    public AccrualRunResponse start(String period) {
+        submit(period);
+        return status(period);
+    }
+
+    @Override
+    public AccrualRunResponse run(String period) {
+        submit(period).join();
+        return status(period);
+    }
+
+    @Override
+    public AccrualRunResponse status(String period) {
+        requirePeriod(period);
+        List<ShardProgress> shards = shardRouter.onEachShard(() -> new ShardProgress(
+                accrualRunRepository.findById(period), accrualChunkRepository.sumByPeriod(period)));
+
+        long chunks = 0;
+        long chunksCompleted = 0;
+        long accounts = 0;
+        BigDecimal interest = BigDecimal.ZERO;
+        BigDecimal charged = BigDecimal.ZERO;
+        Instant startedAt = null;
+        Instant completedAt = null;
+        int started = 0;
+        int completed = 0;
+        for (ShardProgress shard : shards) {
+            AccrualTotals totals = shard.totals();
+            chunksCompleted += totals.chunks();
+            accounts += totals.accounts() != null ? totals.accounts() : 0;
+            interest = totals.interest() != null ? interest.add(totals.interest()) : interest;
+            charged = totals.fees() != null ? charged.add(totals.fees()) : charged;
+            if (shard.run().isPresent()) {
+                AccrualRunEntity run = shard.run().get();
+                started++;
+                chunks += run.getChunks();
+                if (startedAt == null || run.getStartedAt().isBefore(startedAt)) {
+                    startedAt = run.getStartedAt();
+                }
+                if (run.getCompletedAt() != null) {
+                    completed++;
+                    if (completedAt == null || run.getCompletedAt().isAfter(completedAt)) {
+                        completedAt = run.getCompletedAt();
+                    }
+                }
+            }
+        }
+
+        boolean complete = completed == shards.size();
+        String status = runs.containsKey(period) ? "RUNNING"
+                : started == 0 ? "NOT_STARTED"
+                : complete ? "COMPLETED" : "INCOMPLETE";
+        return new AccrualRunResponse(period, status, chunks, chunksCompleted, accounts, interest, charged,
+                startedAt, complete ? completedAt : null, failures.get(period));
+    }
+
+    @Override
+    public String currentPeriod() {
+        return YearMonth.now(zone).toString();
+    }
+
+    /**
+     * Starts the run of the current period on the {@code bank.accrual.cron} schedule, which is
+     * off by default.
+     */
+    @Scheduled(cron = "${bank.accrual.cron:-}", zone = "${bank.accrual.zone:UTC}")
+    public void startScheduled() {
+        start(currentPeriod());
+    }
+
+    /**
+     * Resumes the runs that were interrupted by a crash or a shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        shardRouter.onEachShard(accrualRunRepository::findByCompletedAtIsNull).stream()
+                .flatMap(List::stream)
+                .map(AccrualRunEntity::getPeriod)
+                .distinct()
+                .forEach(this::start);
+    }
+
+    /**
+     * Stops starting chunks and waits for those in flight to commit. The rest are accrued when
+     * the run is resumed.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private ForkJoinTask<?> submit(String period) {
+        requirePeriod(period);
+        if (!running) {
+            throw new IllegalStateException("Accrual is shut down");
+        }
+        return runs.computeIfAbsent(period, key -> pool.submit(() -> {
+            failures.remove(key);
+            try {
+                for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                    int target = shard;
+                    shardRouter.onShard(target, () -> {
+                        accrueOnShard(key, target);
+                        return null;
+                    });
+                }
+            } catch (RuntimeException e) {
+                failures.put(key, String.valueOf(e.getMessage()));
+                throw e;
+            } finally {
+                runs.remove(key);
+            }
+        }));
+    }
+
+    /**
+     * Accrues the chunks of a period that hold accounts and have no checkpoint yet. Chunks are
+     * fixed id ranges, which stay sparse where ids are, as with the pooled id blocks that sharded
+     * accounts draw from every shard's sequence. This runs on a worker of the accrual pool, so the
+     * parallel stream splits the chunks across that pool's workers only.
+     */
+    private void accrueOnShard(String period, int shard) {
+        AccrualRunEntity run = transactionTemplate.execute(status ->
+                accrualRunRepository.findById(period).orElseGet(() -> newRun(period)));
+        if (run.getCompletedAt() != null) {
+            return;
+        }
+        Set<Long> accrued = new HashSet<>(accrualChunkRepository.findChunkIndexes(period));
+        accountRepository.findChunksWithAccounts(run.getFirstAccountId(), run.getLastAccountId(), run.getChunkSize())
+                .stream()
+                .filter(chunk -> !accrued.contains(chunk))
+                .parallel()
+                .forEach(chunk -> shardRouter.onShard(shard, () -> {
+                    accrueChunk(run, chunk);
+                    return null;
+                }));
+        run.setCompletedAt(Instant.now());
+        transactionTemplate.executeWithoutResult(status -> accrualRunRepository.save(run));
+    }
+
+    private AccrualRunEntity newRun(String period) {
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+        long firstAccountId = minId != null ? minId - 1 : 0;
+        long lastAccountId = maxId != null ? maxId : 0;
+        long chunks = accountRepository.findChunksWithAccounts(firstAccountId, lastAccountId, chunkSize).size();
+        return accrualRunRepository.save(new AccrualRunEntity(period, firstAccountId, lastAccountId, chunkSize, chunks,
+                Instant.now(), null));
+    }
+
+    /**
+     * Accrues one chunk in a single transaction. The checkpoint is inserted first, so a second
+     * run of the same chunk fails on its unique constraint before it changes any balance.
+     */
+    private void accrueChunk(AccrualRunEntity run, long chunk) {
+        if (!running) {
+            throw new IllegalStateException("Accrual is shut down");
+        }
+        long afterId = run.getFirstAccountId() + chunk * run.getChunkSize();
+        long lastId = Math.min(afterId + run.getChunkSize(), run.getLastAccountId());
+        List<AccountEntity> accrued = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                AccrualChunkEntity checkpoint = accrualChunkRepository.saveAndFlush(new AccrualChunkEntity(
+                        null, run.getPeriod(), chunk, 0, BigDecimal.ZERO, BigDecimal.ZERO, Instant.now()));
+                List<TransactionHistoryEntity> history = new ArrayList<>();
+                List<AccountEntity> accounts = accountRepository.findDetachedByIdRange(afterId, lastId);
+                for (int attempt = 1; !accounts.isEmpty(); attempt++) {
+                    if (attempt > maxAttempts) {
+                        throw new ObjectOptimisticLockingFailureException(AccountEntity.class, accounts.get(0).getId());
+                    }
+                    accounts = write(accrue(accounts), checkpoint, accrued, history);
+                }
+                transactionHistoryService.recordAll(history);
+                accrued.forEach(balanceEventBus::publish);
+            });
+        } finally {
+            accrued.forEach(account -> accountCache.evict(account.getAccountNumber()));
+        }
+    }
+
+    private record Accrual(AccountEntity account, BigDecimal interest, BigDecimal fee,
+                           List<TransactionHistoryEntity> history) {
+    }
+
+    private record ShardProgress(Optional<AccrualRunEntity> run, AccrualTotals totals) {
+    }
+
+    /**
+     * Applies the interest rate and then the fee of each account's type to its detached copy.
+     * Interest is only earned on a positive balance, and a fee is capped at the balance so it
+     * never overdraws the account.
+     */
+    private List<Accrual> accrue(List<AccountEntity> accounts) {
+        List<Accrual> accruals = new ArrayList<>(accounts.size());
+        for (AccountEntity account : accounts) {
+            String accountType = account.getAccountType().toUpperCase(Locale.ROOT);
+            BigDecimal rate = interestRates.get(accountType);
+            BigDecimal fee = fees.get(accountType);
+            List<TransactionHistoryEntity> history = new ArrayList<>(2);
+
+            BigDecimal interest = BigDecimal.ZERO;
+            if (rate != null && account.getBalance().signum() > 0) {
+                interest = account.getBalance().multiply(rate).setScale(scale, RoundingMode.HALF_EVEN);
+                if (interest.signum() > 0) {
+                    interestFactory.execute(interest, account);
+                    history.add(TransactionHistoryEntity.of(account, interestFactory.getTransactionType().name(), interest));
+                }
+            }
+            BigDecimal charged = BigDecimal.ZERO;
+            if (fee != null) {
+                charged = fee.min(account.getBalance());
+                if (charged.signum() > 0) {
+                    feeFactory.execute(charged, account);
+                    history.add(TransactionHistoryEntity.of(account, feeFactory.getTransactionType().name(), charged));
+                }
+            }
+            if (!history.isEmpty()) {
+                accruals.add(new Accrual(account, interest, charged, history));
+            }
+        }
+        return accruals;
+    }
+
+    /**
+     * Writes the accrued balances as one batch of conditional updates and adds the accounts that
+     * were updated to the checkpoint.
+     *
+     * @return Fresh copies of the accounts whose version had changed, to be accrued again
+     */
+    private List<AccountEntity> write(List<Accrual> accruals, AccrualChunkEntity checkpoint,
+                                      List<AccountEntity> accrued, List<TransactionHistoryEntity> history) {
+        if (accruals.isEmpty()) {
+            return List.of();
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_BALANCE_IF_VERSION, accruals.stream()
+                .map(accrual -> new Object[]{accrual.account().getBalance(), accrual.account().getId(), accrual.account().getVersion()})
+                .toList());
+        List<Long> conflicts = new ArrayList<>();
+        for (int i = 0; i < accruals.size(); i++) {
+            Accrual accrual = accruals.get(i);
+            AccountEntity account = accrual.account();
+            if (updated[i] == 0) {
+                conflicts.add(account.getId());
+                continue;
+            }
+            account.setVersion(account.getVersion() + 1);
+            accrued.add(account);
+            history.addAll(accrual.history());
+            checkpoint.setAccounts(checkpoint.getAccounts() + 1);
+            checkpoint.setInterest(checkpoint.getInterest().add(accrual.interest()));
+            checkpoint.setFees(checkpoint.getFees().add(accrual.fee()));
+        }
+        return conflicts.isEmpty() ? List.of() : accountRepository.findDetachedByIdIn(conflicts);
+    }
+
+    private static void requirePeriod(String period) {
+        if (period == null || !PERIOD.matcher(period).matches()) {
+            throw new IllegalArgumentException("Period must be 1 to 32 letters, digits or dashes, such as 2026-10");
+        }
+    }
+
+    /**
+     * Parses entries such as {@code SAVINGS:0.0025} into amounts by upper-cased account type.
+     */
+    private static Map<String, BigDecimal> parseAmounts(String property, List<String> entries) {
+        Map<String, BigDecimal> amounts = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            try {
+                if (separator <= 0) {
+                    throw new NumberFormatException();
+                }
+                BigDecimal amount = new BigDecimal(entry.substring(separator + 1).trim());
+                if (amount.signum() < 0) {
+                    throw new NumberFormatException();
+                }
+                amounts.put(entry.substring(0, separator).trim().toUpperCase(Locale.ROOT), amount);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(property + " entries must look like TYPE:amount, with a non-negative amount, not " + entry);
+            }
+        }
+        return amounts;
+    }
+}
@@ -0,0 +1,74 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.ShardRouter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded read-through cache of account rows keyed by account number. Entries are evicted by
+ * size and by age, so state written by other instances is picked up within the configured TTL;
+ * writes made through this instance update the cache directly. Hit and miss counts are published
+ * as the "accounts" cache metrics.
+ */
+@Service
+public class CaffeineAccountCache implements AccountCache {
+
+    private final AccountRepository accountRepository;
+    private final ShardRouter shardRouter;
+    private final Cache<String, AccountEntity> cache;
+
+    public CaffeineAccountCache(AccountRepository accountRepository, ShardRouter shardRouter, MeterRegistry meterRegistry,
+                                @Value("${bank.account-cache.maximum-size:100000}") long maximumSize,
+                                @Value("${bank.account-cache.expire-after-write:60s}") Duration expireAfterWrite) {
+        this.accountRepository = accountRepository;
+        this.shardRouter = shardRouter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+    }
+
+    @Override
+    public Optional<AccountEntity> get(String accountNumber) {
+        AccountEntity cached = cache.get(accountNumber, key -> shardRouter.onShardOf(key, () -> accountRepository.findByAccountNumber(key))
+                .map(this::copyOf)
+                .orElse(null));
+        return Optional.ofNullable(cached).map(this::copyOf);
+    }
+
+    /**
+     * Caches the account unless a newer version of it is already cached. Writes commit on many
+     * threads and reach this method in no particular order, so an older state must not replace
+     * a newer one.
+     */
+    @Override
+    public void put(AccountEntity account) {
+        cache.asMap().merge(account.getAccountNumber(), copyOf(account),
+                (cached, written) -> versionOf(written) > versionOf(cached) ? written : cached);
+    }
+
+    @Override
+    public void evict(String accountNumber) {
+        cache.invalidate(accountNumber);
+    }
+
+    private static long versionOf(AccountEntity account) {
+        return account.getVersion() != null ? account.getVersion() : -1;
+    }
+
+    private AccountEntity copyOf(AccountEntity account) {
+        return account.copyWithBalance(account.getBalance());
+    }
+}
@@ -0,0 +1,102 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.IdempotencyKeyReuseException;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import apiabstractmethod.service.IdempotencyService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded dedup store of transaction results keyed by client and idempotency key. Each key maps to the
+ * future of its first execution, so duplicates that arrive while it is in flight join it instead
+ * of running again. Successful results are kept until they age out or the store is full; a failed
+ * execution is removed so that a retry with the same key runs again.
+ * <p>
+ * An execution in flight weighs nothing, so the size bound never evicts it and lets a duplicate
+ * run; it is weighed again once its result is stored.
+ */
+@Service
+public class CaffeineIdempotencyService implements IdempotencyService {
+
+    private final ConcurrentMap<Key, Execution> executions;
+
+    public CaffeineIdempotencyService(MeterRegistry meterRegistry,
+                                      @Value("${bank.idempotency.maximum-size:100000}") long maximumSize,
+                                      @Value("${bank.idempotency.expire-after-write:24h}") Duration expireAfterWrite) {
+        Cache<Key, Execution> cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize)
+                .weigher((Key key, Execution execution) -> execution.result().isDone() ? 1 : 0)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency");
+        this.executions = cache.asMap();
+    }
+
+    @Override
+    public TransactionResponse execute(String clientId, String idempotencyKey, TransactionRequest request,
+                                       Supplier<TransactionResponse> execution) {
+        Key key = new Key(clientId, idempotencyKey);
+        Execution mine = new Execution(request, new CompletableFuture<>());
+        Execution existing = executions.putIfAbsent(key, mine);
+        if (existing != null) {
+            if (!sameRequest(existing.request(), request)) {
+                throw new IdempotencyKeyReuseException(idempotencyKey);
+            }
+            return await(existing.result());
+        }
+
+        try {
+            TransactionResponse response = execution.get();
+            mine.result().complete(response);
+            executions.replace(key, mine, mine);
+            return response;
+        } catch (Throwable e) {
+            executions.remove(key, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Compares amounts numerically, so a retry that sends {@code 10} for {@code 10.00} matches.
+     */
+    private static boolean sameRequest(TransactionRequest first, TransactionRequest second) {
+        return Objects.equals(first.getTransactionTypeName(), second.getTransactionTypeName())
+                && Objects.equals(first.getAccountNumber(), second.getAccountNumber())
+                && Objects.equals(first.getTargetAccountNumber(), second.getTargetAccountNumber())
+                && first.getAmount().compareTo(second.getAmount()) == 0;
+    }
+
+    private static TransactionResponse await(CompletableFuture<TransactionResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String clientId, String idempotencyKey) {
+    }
+
+    private record Execution(TransactionRequest request, CompletableFuture<TransactionResponse> result) {
+    }
+}
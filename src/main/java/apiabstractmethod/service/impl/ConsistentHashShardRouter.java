@@ -0,0 +1,122 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.config.ShardRoutingDataSource;
+import apiabstractmethod.service.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Places accounts on shards with a consistent hash ring. Each shard owns many points on the
+ * ring, and an account belongs to the shard owning the first point at or after the hash of its
+ * number. Adding a shard therefore moves only about 1/N of the accounts. Scatter-gather work
+ * runs on virtual threads, one per shard.
+ * <p>
+ * The in-memory balance engine, the ledger and the transaction pipeline each assume a single
+ * database, so they cannot be enabled together with sharding.
+ */
+@Service
+@ConditionalOnProperty(name = "bank.sharding.enabled", havingValue = "true")
+public class ConsistentHashShardRouter implements ShardRouter {
+
+    private static final int POINTS_PER_SHARD = 160;
+
+    private final ShardRoutingDataSource dataSource;
+    private final int shardCount;
+    private final int[] ringPoints;
+    private final int[] ringShards;
+    private final ExecutorService scatterExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ConsistentHashShardRouter(ShardRoutingDataSource dataSource,
+                                     @Value("${bank.sharding.urls}") List<String> urls,
+                                     @Value("${bank.balance-engine.enabled:false}") boolean balanceEngineEnabled,
+                                     @Value("${bank.ledger.enabled:false}") boolean ledgerEnabled,
+                                     @Value("${bank.pipeline.enabled:false}") boolean pipelineEnabled) {
+        if (balanceEngineEnabled || ledgerEnabled || pipelineEnabled) {
+            throw new IllegalStateException(
+                    "Sharding cannot be combined with the balance engine, the ledger or the transaction pipeline");
+        }
+        this.dataSource = dataSource;
+        this.shardCount = urls.size();
+
+        long[] points = new long[shardCount * POINTS_PER_SHARD];
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int point = 0; point < POINTS_PER_SHARD; point++) {
+                int hash = hash("shard-" + shard + "#" + point);
+                points[shard * POINTS_PER_SHARD + point] = ((long) hash << 32) | shard;
+            }
+        }
+        Arrays.sort(points);
+        this.ringPoints = new int[points.length];
+        this.ringShards = new int[points.length];
+        for (int i = 0; i < points.length; i++) {
+            ringPoints[i] = (int) (points[i] >> 32);
+            ringShards[i] = (int) points[i];
+        }
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int shardOf(String accountNumber) {
+        int index = Arrays.binarySearch(ringPoints, hash(accountNumber));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return ringShards[index == ringPoints.length ? 0 : index];
+    }
+
+    @Override
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return dataSource.withShard(shard, work);
+    }
+
+    @Override
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        List<CompletableFuture<T>> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            results.add(CompletableFuture.supplyAsync(() -> onShard(target, work), scatterExecutor));
+        }
+        try {
+            return results.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatterExecutor.shutdown();
+    }
+
+    /**
+     * Spreads String.hashCode, which is stable across JVMs, over the whole int range with the
+     * MurmurHash3 finalizer, so similar account numbers land on unrelated ring positions.
+     */
+    private static int hash(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
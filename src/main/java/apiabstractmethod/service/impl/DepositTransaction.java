@@ -19,16 +19,33 @@ public class DepositTransaction implements Transaction {
     
     @Override
     public AccountEntity execute() {
+        return apply(amount, account);
+    }
+
+    /**
+     * Deposit rules applied in place to an account.
+     */
+    public static AccountEntity apply(BigDecimal amount, AccountEntity account) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
 
         BigDecimal newBalance = account.getBalance().add(amount);
         account.setBalance(newBalance);
-        
+
         return account;
     }
     
+    /**
+     * Deposit rules on balances held in minor units.
+     */
+    public static long apply(long balance, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        return Math.addExact(balance, amount);
+    }
+
     @Override
     public String getType() {
         return type;
@@ -1,5 +1,6 @@
 package apiabstractmethod.service.impl;
 
+import apiabstractmethod.model.TransactionType;
 import apiabstractmethod.model.entity.AccountEntity;
 import apiabstractmethod.service.Transaction;
 import apiabstractmethod.service.TransactionFactory;
@@ -13,9 +14,19 @@ public class DepositTransactionFactory implements TransactionFactory {
     public Transaction createTransaction(BigDecimal amount, AccountEntity account) {
         return new DepositTransaction(amount, account);
     }
+
+    @Override
+    public AccountEntity execute(BigDecimal amount, AccountEntity account) {
+        return DepositTransaction.apply(amount, account);
+    }
+
+    @Override
+    public long apply(long balance, long amount) {
+        return DepositTransaction.apply(balance, amount);
+    }
     
     @Override
-    public String getTransactionType() {
-        return "DEPOSIT";
+    public TransactionType getTransactionType() {
+        return TransactionType.DEPOSIT;
     }
 }
\ No newline at end of file
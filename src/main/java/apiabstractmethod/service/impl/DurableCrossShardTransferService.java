@@ -0,0 +1,245 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.AccountNotFoundException;
+import apiabstractmethod.model.Money;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.TransferIntentEntity;
+import apiabstractmethod.model.entity.TransferIntentEntity.Status;
+import apiabstractmethod.model.entity.TransferReceiptEntity;
+import apiabstractmethod.model.entity.TransferReceiptEntity.Outcome;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.repository.TransferIntentRepository;
+import apiabstractmethod.repository.TransferReceiptRepository;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.CounterpartyTransactionFactory;
+import apiabstractmethod.service.CrossShardTransferService;
+import apiabstractmethod.service.ShardRouter;
+import apiabstractmethod.service.TransactionHistoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Moves money across shards with a transfer intent on the source shard and a receipt on the
+ * target shard. A transfer runs three local transactions:
+ * <ol>
+ *     <li>the source shard debits the source and stores the intent as pending,</li>
+ *     <li>the target shard inserts a CREDITED receipt and credits the target,</li>
+ *     <li>the source shard marks the intent completed.</li>
+ * </ol>
+ * When the credit fails, the transfer is cancelled by inserting a CANCELLED receipt on the target
+ * shard, and only then is the source credited back and the intent marked reversed. The receipt's
+ * unique constraint decides between credit and cancellation, so a credit that committed although
+ * its caller saw an error is completed rather than reversed a second time.
+ * <p>
+ * A crash or shard outage between the steps leaves the intent pending, with the money debited
+ * but not lost. A periodic sweep settles every intent still pending after the recovery delay the
+ * same way a failed credit is settled. The delay keeps it clear of transfers in progress.
+ */
+@Service
+@ConditionalOnProperty(name = "bank.sharding.enabled", havingValue = "true")
+public class DurableCrossShardTransferService implements CrossShardTransferService {
+
+    private final AccountRepository accountRepository;
+    private final TransferIntentRepository transferIntentRepository;
+    private final TransferReceiptRepository transferReceiptRepository;
+    private final AccountCache accountCache;
+    private final BalanceEventBus balanceEventBus;
+    private final TransactionHistoryService transactionHistoryService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration recoveryDelay;
+    private final int maxAttempts;
+    private final int scale;
+
+    public DurableCrossShardTransferService(AccountRepository accountRepository,
+                                            TransferIntentRepository transferIntentRepository,
+                                            TransferReceiptRepository transferReceiptRepository,
+                                            AccountCache accountCache, BalanceEventBus balanceEventBus,
+                                            TransactionHistoryService transactionHistoryService,
+                                            ShardRouter shardRouter, PlatformTransactionManager transactionManager,
+                                            @Value("${bank.sharding.transfer-recovery-delay:30s}") Duration recoveryDelay,
+                                            @Value("${bank.transactions.retry.max-attempts:8}") int maxAttempts,
+                                            @Value("${bank.currency:USD}") Currency currency) {
+        this.accountRepository = accountRepository;
+        this.transferIntentRepository = transferIntentRepository;
+        this.transferReceiptRepository = transferReceiptRepository;
+        this.accountCache = accountCache;
+        this.balanceEventBus = balanceEventBus;
+        this.transactionHistoryService = transactionHistoryService;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recoveryDelay = recoveryDelay;
+        this.maxAttempts = maxAttempts;
+        this.scale = currency.getDefaultFractionDigits();
+    }
+
+    @Override
+    public AccountEntity transfer(CounterpartyTransactionFactory factory, String accountNumber,
+                                  String counterpartyAccountNumber, BigDecimal amount) {
+        long amountMinorUnits = Money.toMinorUnits(amount, scale);
+        if (accountCache.get(counterpartyAccountNumber).isEmpty()) {
+            throw new AccountNotFoundException(counterpartyAccountNumber);
+        }
+        String type = factory.getTransactionType().name();
+        TransferIntentEntity intent = new TransferIntentEntity(UUID.randomUUID().toString(), accountNumber,
+                counterpartyAccountNumber, type, amount, Status.PENDING, Instant.now(), null);
+
+        AccountEntity debited = onShardOf(accountNumber, () -> {
+            AccountEntity account = updateBalance(accountNumber, type + "_OUT", amount,
+                    balance -> factory.apply(balance, amountMinorUnits));
+            transferIntentRepository.save(intent);
+            return account;
+        });
+        try {
+            onShardOf(counterpartyAccountNumber, () -> {
+                transferReceiptRepository.saveAndFlush(new TransferReceiptEntity(null, intent.getId(), Outcome.CREDITED, Instant.now()));
+                return updateBalance(counterpartyAccountNumber, type + "_IN", amount,
+                        balance -> factory.applyToCounterparty(balance, amountMinorUnits));
+            });
+        } catch (RuntimeException e) {
+            try {
+                settle(intent);
+            } catch (RuntimeException settleFailure) {
+                // The intent stays pending and the recovery sweep settles it
+                e.addSuppressed(settleFailure);
+            }
+            throw e;
+        }
+        try {
+            settle(intent, Outcome.CREDITED);
+        } catch (RuntimeException e) {
+            // The money has arrived; the recovery sweep finds the receipt and completes the intent
+        }
+        return debited;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${bank.sharding.transfer-recovery-interval-ms:10000}")
+    public int recover() {
+        Instant createdBefore = Instant.now().minus(recoveryDelay);
+        List<TransferIntentEntity> pending = shardRouter.onEachShard(() -> transactionTemplate.execute(status ->
+                        transferIntentRepository.findByStatusAndCreatedAtBefore(Status.PENDING, createdBefore)))
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+        int settled = 0;
+        RuntimeException failure = null;
+        for (TransferIntentEntity intent : pending) {
+            try {
+                settle(intent);
+                settled++;
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return settled;
+    }
+
+    /**
+     * Fixes the outcome of a transfer on its target shard, cancelling it unless it was credited,
+     * and applies that outcome to the intent.
+     */
+    private void settle(TransferIntentEntity intent) {
+        settle(intent, shardRouter.onShardOf(intent.getTargetAccountNumber(), () -> cancelUnlessCredited(intent.getId())));
+    }
+
+    /**
+     * Marks the intent completed, or credits the source back and marks it reversed, in one
+     * transaction on the source shard. The intent's version check lets only one of two concurrent
+     * settlements of the same transfer commit.
+     */
+    private void settle(TransferIntentEntity intent, Outcome outcome) {
+        String accountNumber = intent.getSourceAccountNumber();
+        onShardOf(accountNumber, () -> {
+            TransferIntentEntity current = transferIntentRepository.findById(intent.getId()).orElseThrow();
+            if (current.getStatus() != Status.PENDING) {
+                return null;
+            }
+            if (outcome == Outcome.CREDITED) {
+                current.setStatus(Status.COMPLETED);
+                return null;
+            }
+            long amountMinorUnits = Money.toMinorUnits(current.getAmount(), scale);
+            AccountEntity account = updateBalance(accountNumber, current.getTransactionType() + "_REVERSAL",
+                    current.getAmount(), balance -> Math.addExact(balance, amountMinorUnits));
+            current.setStatus(Status.REVERSED);
+            return account;
+        });
+    }
+
+    private Outcome cancelUnlessCredited(String intentId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> transferReceiptRepository.saveAndFlush(
+                    new TransferReceiptEntity(null, intentId, Outcome.CANCELLED, Instant.now())));
+            return Outcome.CANCELLED;
+        } catch (DataIntegrityViolationException e) {
+            return transactionTemplate.execute(status -> transferReceiptRepository.findByIntentId(intentId))
+                    .orElseThrow(() -> e)
+                    .getOutcome();
+        }
+    }
+
+    /**
+     * Runs one local transaction on an account's shard and caches the account it changed, if any,
+     * once it has committed.
+     */
+    private AccountEntity onShardOf(String accountNumber, Supplier<AccountEntity> work) {
+        try {
+            AccountEntity updatedAccount = shardRouter.onShardOf(accountNumber, () -> transactionTemplate.execute(status -> work.get()));
+            if (updatedAccount != null) {
+                accountCache.put(updatedAccount);
+            }
+            return updatedAccount;
+        } catch (RuntimeException e) {
+            accountCache.evict(accountNumber);
+            throw e;
+        }
+    }
+
+    /**
+     * Applies a rule to the balance of an account with a conditional update on the version it was
+     * read at, reading it again when another writer got there first. Must run in a transaction on
+     * the account's shard.
+     */
+    private AccountEntity updateBalance(String accountNumber, String historyType, BigDecimal amount, LongUnaryOperator rule) {
+        for (int attempt = 1; ; attempt++) {
+            AccountEntity account = accountCache.get(accountNumber)
+                    .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+            BigDecimal balance = Money.toDecimal(rule.applyAsLong(Money.toMinorUnits(account.getBalance(), scale)), scale);
+            if (accountRepository.updateBalanceIfVersion(account.getId(), balance, account.getVersion()) == 1) {
+                AccountEntity updatedAccount = account.copyWithBalance(balance);
+                updatedAccount.setVersion(account.getVersion() + 1);
+                transactionHistoryService.record(updatedAccount, historyType, amount);
+                balanceEventBus.publish(updatedAccount);
+                return updatedAccount;
+            }
+            accountCache.evict(accountNumber);
+            if (attempt >= maxAttempts) {
+                throw new ObjectOptimisticLockingFailureException(AccountEntity.class, account.getId());
+            }
+        }
+    }
+}
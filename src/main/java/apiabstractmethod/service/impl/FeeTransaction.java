@@ -0,0 +1,66 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.InsufficientFundsException;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.service.Transaction;
+import lombok.Getter;
+import java.math.BigDecimal;
+
+/**
+ * Charges a fee to an account, such as a monthly maintenance fee. Like a withdrawal, a fee
+ * never takes the balance below zero.
+ */
+@Getter
+public class FeeTransaction implements Transaction {
+
+    private final BigDecimal amount;
+    private final AccountEntity account;
+    private static final String TYPE = "FEE";
+
+    public FeeTransaction(BigDecimal amount, AccountEntity account) {
+        this.amount = amount;
+        this.account = account;
+    }
+
+    @Override
+    public AccountEntity execute() {
+        return apply(amount, account);
+    }
+
+    /**
+     * Fee rules applied in place to an account.
+     */
+    public static AccountEntity apply(BigDecimal amount, AccountEntity account) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Fee amount must be positive");
+        }
+
+        if (account.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException("Insufficient funds for fee");
+        }
+
+        account.setBalance(account.getBalance().subtract(amount));
+
+        return account;
+    }
+
+    /**
+     * Fee rules on balances held in minor units.
+     */
+    public static long apply(long balance, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Fee amount must be positive");
+        }
+
+        if (balance < amount) {
+            throw new InsufficientFundsException("Insufficient funds for fee");
+        }
+
+        return balance - amount;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+}
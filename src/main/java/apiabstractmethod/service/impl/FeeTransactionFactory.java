@@ -0,0 +1,32 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.service.Transaction;
+import apiabstractmethod.service.TransactionFactory;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+
+@Service
+public class FeeTransactionFactory implements TransactionFactory {
+    
+    @Override
+    public Transaction createTransaction(BigDecimal amount, AccountEntity account) {
+        return new FeeTransaction(amount, account);
+    }
+
+    @Override
+    public AccountEntity execute(BigDecimal amount, AccountEntity account) {
+        return FeeTransaction.apply(amount, account);
+    }
+
+    @Override
+    public long apply(long balance, long amount) {
+        return FeeTransaction.apply(balance, amount);
+    }
+    
+    @Override
+    public TransactionType getTransactionType() {
+        return TransactionType.FEE;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,368 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.service.WriteAheadLog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log of balance changes kept in numbered segment files. Callers only queue their
+ * records. A single writer thread takes everything that has queued up, optionally waiting a
+ * short window for more, and writes it with one FileChannel write and one fsync. Many concurrent
+ * transactions therefore share the cost of a sync (group commit).
+ * <p>
+ * Each record is framed as {@code [int length][int crc32c][payload]}. On recovery, reading stops
+ * at the first record whose frame is incomplete or whose checksum does not match, which is what
+ * a crash in the middle of a write leaves behind. Records hold resulting balances, not deltas,
+ * so replaying a record whose effect is already in the database is harmless.
+ */
+@Service
+@ConditionalOnProperty(name = {"bank.balance-engine.enabled", "bank.wal.enabled"}, havingValue = "true")
+public class FileWriteAheadLog implements WriteAheadLog {
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private sealed interface Request permits Append, Rotate {
+    }
+
+    private record Append(byte[] record, CompletableFuture<Void> durable) implements Request {
+    }
+
+    private record Rotate(CompletableFuture<Long> boundary) implements Request {
+    }
+
+    private final Path directory;
+    private final long segmentSize;
+    private final long groupCommitWindowNanos;
+    private final int groupCommitMaxBytes;
+    private final Timer syncs;
+    private final DistributionSummary groupSizes;
+    private final List<Path> previousSegments;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    private ByteBuffer buffer;
+    private FileChannel segment;
+    private long segmentIndex;
+
+    public FileWriteAheadLog(MeterRegistry meterRegistry,
+                             @Value("${bank.wal.directory:data/wal}") Path directory,
+                             @Value("${bank.wal.segment-size:64MB}") DataSize segmentSize,
+                             @Value("${bank.wal.group-commit-window:0ms}") Duration groupCommitWindow,
+                             @Value("${bank.wal.group-commit-max-bytes:1MB}") DataSize groupCommitMaxBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize.toBytes();
+        this.groupCommitWindowNanos = groupCommitWindow.toNanos();
+        this.groupCommitMaxBytes = Math.toIntExact(groupCommitMaxBytes.toBytes());
+        this.syncs = Timer.builder("bank.wal.sync")
+                .description("Time spent writing and syncing one group of write-ahead log records")
+                .register(meterRegistry);
+        this.groupSizes = DistributionSummary.builder("bank.wal.group.size")
+                .description("Records made durable by one sync")
+                .register(meterRegistry);
+        this.buffer = ByteBuffer.allocateDirect(this.groupCommitMaxBytes);
+
+        this.previousSegments = listSegments();
+        this.segmentIndex = previousSegments.isEmpty() ? 0 : indexOf(previousSegments.get(previousSegments.size() - 1)) + 1;
+        this.segment = openSegment(segmentIndex);
+        this.writer = Thread.ofPlatform().name("write-ahead-log").start(this::run);
+    }
+
+    @Override
+    public CompletableFuture<Void> append(Entry... entries) {
+        checkNotFailed();
+        Append append = new Append(encode(entries), new CompletableFuture<>());
+        queue.add(append);
+        return append.durable();
+    }
+
+    @Override
+    public long checkpoint() {
+        checkNotFailed();
+        Rotate rotate = new Rotate(new CompletableFuture<>());
+        queue.add(rotate);
+        try {
+            return rotate.boundary().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Write-ahead log is unavailable", e.getCause());
+        }
+    }
+
+    @Override
+    public void release(long checkpoint) {
+        try {
+            for (Path path : listSegments()) {
+                if (indexOf(path) < checkpoint) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> recover() {
+        Map<String, Long> balances = new LinkedHashMap<>();
+        for (Path path : previousSegments) {
+            try {
+                readSegment(ByteBuffer.wrap(Files.readAllBytes(path)), balances);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Stops accepting records once the queue is drained and closes the current segment.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException, IOException {
+        running = false;
+        writer.join();
+        IOException closed = new IOException("Write-ahead log is closed");
+        for (Request request; (request = queue.poll()) != null; ) {
+            fail(request, closed);
+        }
+        segment.close();
+    }
+
+    private void run() {
+        List<Request> group = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Request first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                collectGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (failure != null) {
+                group.forEach(request -> fail(request, failure));
+            } else {
+                process(group);
+            }
+            group.clear();
+        }
+    }
+
+    /**
+     * Adds to the group whatever queued up while the previous group was being synced, then waits
+     * up to the group commit window for more, until the group fills the write buffer.
+     */
+    private void collectGroup(List<Request> group) throws InterruptedException {
+        int bytes = sizeOf(group.get(0));
+        long deadline = System.nanoTime() + groupCommitWindowNanos;
+        while (bytes < groupCommitMaxBytes) {
+            Request next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                    return;
+                }
+            }
+            group.add(next);
+            bytes += sizeOf(next);
+        }
+    }
+
+    private void process(List<Request> group) {
+        List<Append> pending = new ArrayList<>(group.size());
+        try {
+            for (Request request : group) {
+                if (request instanceof Append append) {
+                    if (buffer.remaining() < append.record().length) {
+                        sync(pending);
+                    }
+                    ensureCapacity(append.record().length);
+                    buffer.put(append.record());
+                    pending.add(append);
+                } else if (request instanceof Rotate rotate) {
+                    sync(pending);
+                    if (segment.size() > 0) {
+                        rotate();
+                    }
+                    rotate.boundary().complete(segmentIndex);
+                }
+            }
+            sync(pending);
+        } catch (IOException e) {
+            failure = e;
+            pending.forEach(append -> fail(append, e));
+            group.forEach(request -> fail(request, e));
+        }
+    }
+
+    /**
+     * Writes the buffered records, forces them to disk and only then acknowledges them.
+     */
+    private void sync(List<Append> pending) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        buffer.clear();
+        segment.force(false);
+        syncs.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        groupSizes.record(pending.size());
+        pending.forEach(append -> append.durable().complete(null));
+        pending.clear();
+        if (segment.size() >= segmentSize) {
+            rotate();
+        }
+    }
+
+    private void ensureCapacity(int recordLength) {
+        if (buffer.capacity() < recordLength) {
+            buffer = ByteBuffer.allocateDirect(recordLength);
+        }
+    }
+
+    private void rotate() throws IOException {
+        segment.close();
+        segmentIndex++;
+        segment = openSegment(segmentIndex);
+    }
+
+    private FileChannel openSegment(long index) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(SEGMENT_PREFIX + String.format("%020d", index) + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        syncDirectory();
+        return channel;
+    }
+
+    /**
+     * Makes the creation of a segment file durable. Not every platform allows syncing a
+     * directory, in which case the file system's own guarantees apply.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directory sync is not supported on this platform
+        }
+    }
+
+    private void fail(Request request, IOException cause) {
+        IllegalStateException failed = new IllegalStateException("Write-ahead log is unavailable", cause);
+        if (request instanceof Append append) {
+            append.durable().completeExceptionally(failed);
+        } else if (request instanceof Rotate rotate) {
+            rotate.boundary().completeExceptionally(failed);
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new IllegalStateException("Write-ahead log is unavailable", failure);
+        }
+        if (!running) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int sizeOf(Request request) {
+        return request instanceof Append append ? append.record().length : 0;
+    }
+
+    private static byte[] encode(Entry[] entries) {
+        byte[][] accountNumbers = new byte[entries.length][];
+        int payloadLength = Short.BYTES;
+        for (int i = 0; i < entries.length; i++) {
+            accountNumbers[i] = entries[i].accountNumber().getBytes(StandardCharsets.UTF_8);
+            payloadLength += Short.BYTES + accountNumbers[i].length + Long.BYTES;
+        }
+        ByteBuffer record = ByteBuffer.allocate(FRAME_HEADER_BYTES + payloadLength);
+        record.putInt(payloadLength).putInt(0).putShort((short) entries.length);
+        for (int i = 0; i < entries.length; i++) {
+            record.putShort((short) accountNumbers[i].length).put(accountNumbers[i]).putLong(entries[i].balance());
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), FRAME_HEADER_BYTES, payloadLength);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        return record.array();
+    }
+
+    private static void readSegment(ByteBuffer segment, Map<String, Long> balances) {
+        CRC32C crc = new CRC32C();
+        while (segment.remaining() >= FRAME_HEADER_BYTES) {
+            int payloadLength = segment.getInt();
+            int checksum = segment.getInt();
+            if (payloadLength <= 0 || payloadLength > segment.remaining()) {
+                return;
+            }
+            crc.reset();
+            crc.update(segment.array(), segment.position(), payloadLength);
+            if ((int) crc.getValue() != checksum) {
+                return;
+            }
+            int entries = segment.getShort();
+            for (int i = 0; i < entries; i++) {
+                byte[] accountNumber = new byte[segment.getShort()];
+                segment.get(accountNumber);
+                balances.put(new String(accountNumber, StandardCharsets.UTF_8), segment.getLong());
+            }
+        }
+    }
+}
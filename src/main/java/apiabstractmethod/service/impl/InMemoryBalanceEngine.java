@@ -0,0 +1,571 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.AccountNotFoundException;
+import apiabstractmethod.exception.RateLimitExceededException;
+import apiabstractmethod.metrics.TransactionMetrics;
+import apiabstractmethod.metrics.TransactionMetrics.Phase;
+import apiabstractmethod.model.Money;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.TransactionHistoryEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.BalanceEngine;
+import apiabstractmethod.service.CounterpartyTransactionFactory;
+import apiabstractmethod.service.TransactionFactory;
+import apiabstractmethod.service.TransactionHistoryService;
+import apiabstractmethod.service.WriteAheadLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Keeps the balance of every touched account in memory, as long minor units of the configured
+ * currency, and applies transactions with a compare-and-set loop, so concurrent operations on
+ * the same account never lose updates and never wait on a database row. Changed balances, and
+ * the history records of the transactions that changed them, are written back to the
+ * repository by a periodic flush (write-behind).
+ * <p>
+ * Transfers lock their two accounts in id order, so opposite transfers between the same
+ * accounts cannot deadlock and unrelated transfers never wait on each other. Single-account
+ * operations stay lock-free. The flush snapshots balances while no transfer is halfway
+ * through, so it never writes a debit without its matching credit.
+ * <p>
+ * History records waiting for the flush are bounded. Once the limit is reached, because the
+ * database is slow or down, operations wait for the flush to make room and are rejected if it
+ * does not within the configured timeout, before they change any balance. Each record is
+ * stamped inside the compare-and-set that produced its balance, strictly later than the
+ * previous record of its account, so the history of an account orders like its updates.
+ * <p>
+ * When the write-ahead log is enabled, every operation is logged with the balances it produced
+ * and only returns once the log record is durable. The log is applied to the database on
+ * startup, so operations acknowledged before a crash survive it even when they were not
+ * flushed yet. Each operation then computes its balances under the account lock, from the
+ * balances last logged, and only publishes them once its record is durable, so no reader, later
+ * operation or flush ever sees a balance the log may lose, and an operation whose record could
+ * not be written leaves no trace. A flush starts a new log segment, waits for operations in
+ * flight and releases the older segments once the balances it wrote are committed.
+ * <p>
+ * An account is marked dirty by the change that makes it so, and queued for the next flush, which
+ * therefore costs the accounts changed since the previous one rather than every account held.
+ * An account whose balance the database holds is dropped from memory once it has been idle for
+ * the configured period, or sooner while more accounts than the configured maximum are held.
+ * The flush writes the version of each balance with it, so an account loaded again carries on
+ * from the version it was dropped at.
+ * <p>
+ * The engine assumes it is the only writer of balances for the accounts it holds, which
+ * holds for a single application instance.
+ */
+@Service
+@ConditionalOnProperty(name = "bank.balance-engine.enabled", havingValue = "true")
+public class InMemoryBalanceEngine implements BalanceEngine {
+
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final TransactionMetrics transactionMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final Optional<WriteAheadLog> writeAheadLog;
+    private final BalanceEventBus balanceEventBus;
+    private final TransactionHistoryService transactionHistoryService;
+    private final int scale;
+    private final ConcurrentMap<String, AccountState> states = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<AccountState> dirtyStates = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<EvictionCheck> evictionChecks = new ConcurrentLinkedQueue<>();
+    private final ReadWriteLock transferLock = new ReentrantReadWriteLock();
+    private final ConcurrentLinkedQueue<TransactionHistoryEntity> pendingHistory = new ConcurrentLinkedQueue<>();
+    private final Semaphore pendingHistoryPermits;
+    private final Duration pendingHistoryTimeout;
+    private final long idleEvictionNanos;
+    private final int maxAccounts;
+
+    public InMemoryBalanceEngine(AccountRepository accountRepository, AccountCache accountCache,
+                                 TransactionMetrics transactionMetrics, PlatformTransactionManager transactionManager,
+                                 Optional<WriteAheadLog> writeAheadLog, BalanceEventBus balanceEventBus,
+                                 TransactionHistoryService transactionHistoryService,
+                                 @Value("${bank.currency:USD}") Currency currency,
+                                 @Value("${bank.balance-engine.max-pending-history:100000}") int maxPendingHistory,
+                                 @Value("${bank.balance-engine.pending-history-timeout:5s}") Duration pendingHistoryTimeout,
+                                 @Value("${bank.balance-engine.idle-eviction:10m}") Duration idleEviction,
+                                 @Value("${bank.balance-engine.max-accounts:100000}") int maxAccounts) {
+        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.transactionMetrics = transactionMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeAheadLog = writeAheadLog;
+        this.balanceEventBus = balanceEventBus;
+        this.transactionHistoryService = transactionHistoryService;
+        this.scale = currency.getDefaultFractionDigits();
+        this.pendingHistoryPermits = new Semaphore(maxPendingHistory);
+        this.pendingHistoryTimeout = pendingHistoryTimeout;
+        this.idleEvictionNanos = idleEviction.toNanos();
+        this.maxAccounts = maxAccounts;
+    }
+
+    @Override
+    public AccountEntity apply(TransactionFactory factory, String accountNumber, BigDecimal amount) {
+        TransactionType type = factory.getTransactionType();
+        long start = System.nanoTime();
+        long amountMinorUnits = Money.toMinorUnits(amount, scale);
+        AccountState state = stateFor(accountNumber);
+        start = transactionMetrics.record(type, Phase.LOOKUP, start);
+        reservePendingHistory(1);
+        LongUnaryOperator operation = balance -> factory.apply(balance, amountMinorUnits);
+        Balance updated;
+        try {
+            while ((updated = writeAheadLog.isPresent() ? updateDurably(state, operation) : state.update(operation)) == null) {
+                // Dropped from memory since it was looked up
+                state = stateFor(accountNumber);
+            }
+        } catch (RuntimeException e) {
+            pendingHistoryPermits.release(1);
+            throw e;
+        }
+        transactionMetrics.record(type, Phase.EXECUTE, start);
+        AccountEntity updatedAccount = state.account.copyWithBalance(Money.toDecimal(updated.minorUnits(), scale));
+        pendingHistory.add(TransactionHistoryEntity.of(updatedAccount, type.name(), amount, updated.occurredAt()));
+        balanceEventBus.publish(updatedAccount, updated.version());
+        return updatedAccount;
+    }
+
+    /**
+     * Logs the balance an operation produces and publishes it once the log record is durable. The
+     * transfer read lock is held until then, so a flush never checkpoints the log between the two.
+     * Returns null if the account has been dropped from memory.
+     */
+    private Balance updateDurably(AccountState state, LongUnaryOperator operation) {
+        transferLock.readLock().lock();
+        try {
+            Balance updated;
+            CompletableFuture<Void> durable;
+            state.lock.lock();
+            try {
+                updated = state.prepare(operation);
+                if (updated == null) {
+                    return null;
+                }
+                durable = writeAheadLog.get().append(new WriteAheadLog.Entry(state.account.getAccountNumber(), updated.minorUnits()));
+                state.logged = updated;
+            } finally {
+                state.lock.unlock();
+            }
+            awaitDurable(durable, state);
+            state.publish(updated);
+            return updated;
+        } finally {
+            transferLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes room for history records in the bounded buffer, waiting for the flush to make some
+     * if it is full.
+     */
+    private void reservePendingHistory(int records) {
+        try {
+            if (!pendingHistoryPermits.tryAcquire(records, pendingHistoryTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RateLimitExceededException("Too many transactions waiting to be written, please retry later",
+                        pendingHistoryTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the balance engine to flush", e);
+        }
+    }
+
+    /**
+     * Waits for a log record to be durable. If it cannot be, the operations logged after it
+     * cannot be either, so the accounts go back to their published balances.
+     */
+    private static void awaitDurable(CompletableFuture<Void> durable, AccountState... states) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            for (AccountState state : states) {
+                state.discardLogged();
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public AccountEntity applyTransfer(CounterpartyTransactionFactory factory, String accountNumber,
+                                       String counterpartyAccountNumber, BigDecimal amount) {
+        TransactionType type = factory.getTransactionType();
+        long start = System.nanoTime();
+        long amountMinorUnits = Money.toMinorUnits(amount, scale);
+        AccountState source = stateFor(accountNumber);
+        AccountState target = stateFor(counterpartyAccountNumber);
+        start = transactionMetrics.record(type, Phase.LOOKUP, start);
+
+        Transferred transferred;
+        reservePendingHistory(2);
+        transferLock.readLock().lock();
+        try {
+            while ((transferred = transfer(factory, source, target, amountMinorUnits)) == null) {
+                // One of the accounts was dropped from memory since it was looked up
+                source = stateFor(accountNumber);
+                target = stateFor(counterpartyAccountNumber);
+            }
+        } catch (RuntimeException e) {
+            pendingHistoryPermits.release(2);
+            throw e;
+        } finally {
+            transferLock.readLock().unlock();
+        }
+        Balance updated = transferred.source();
+        Balance targetUpdated = transferred.target();
+        transactionMetrics.record(type, Phase.EXECUTE, start);
+        AccountEntity updatedAccount = source.account.copyWithBalance(Money.toDecimal(updated.minorUnits(), scale));
+        AccountEntity updatedTarget = target.account.copyWithBalance(Money.toDecimal(targetUpdated.minorUnits(), scale));
+        pendingHistory.add(TransactionHistoryEntity.of(updatedAccount, type.name() + "_OUT", amount, updated.occurredAt()));
+        pendingHistory.add(TransactionHistoryEntity.of(updatedTarget, type.name() + "_IN", amount, targetUpdated.occurredAt()));
+        balanceEventBus.publish(updatedAccount, updated.version());
+        balanceEventBus.publish(updatedTarget, targetUpdated.version());
+        return updatedAccount;
+    }
+
+    /**
+     * Moves money between two accounts under their locks, taken in id order. Must be called with
+     * the transfer read lock held. Returns null if either account has been dropped from memory.
+     */
+    private Transferred transfer(CounterpartyTransactionFactory factory, AccountState source, AccountState target,
+                                 long amountMinorUnits) {
+        boolean sourceFirst = source.account.getId() < target.account.getId();
+        AccountState first = sourceFirst ? source : target;
+        AccountState second = sourceFirst ? target : source;
+
+        Balance updated;
+        Balance targetUpdated;
+        CompletableFuture<Void> durable = null;
+        first.lock.lock();
+        second.lock.lock();
+        try {
+            if (source.isRetired() || target.isRetired()) {
+                return null;
+            }
+            if (writeAheadLog.isPresent()) {
+                updated = source.prepare(balance -> factory.apply(balance, amountMinorUnits));
+                targetUpdated = target.prepare(balance -> factory.applyToCounterparty(balance, amountMinorUnits));
+                durable = writeAheadLog.get().append(new WriteAheadLog.Entry(source.account.getAccountNumber(), updated.minorUnits()),
+                        new WriteAheadLog.Entry(target.account.getAccountNumber(), targetUpdated.minorUnits()));
+                source.logged = updated;
+                target.logged = targetUpdated;
+            } else {
+                updated = source.update(balance -> factory.apply(balance, amountMinorUnits));
+                try {
+                    targetUpdated = target.update(balance -> factory.applyToCounterparty(balance, amountMinorUnits));
+                } catch (RuntimeException e) {
+                    source.update(balance -> Math.addExact(balance, amountMinorUnits));
+                    throw e;
+                }
+            }
+        } finally {
+            second.lock.unlock();
+            first.lock.unlock();
+        }
+        if (durable != null) {
+            awaitDurable(durable, source, target);
+            source.publish(updated);
+            target.publish(targetUpdated);
+        }
+        return new Transferred(updated, targetUpdated);
+    }
+
+    @Override
+    public Optional<BigDecimal> currentBalance(String accountNumber) {
+        return Optional.ofNullable(states.get(accountNumber))
+                .map(state -> state.balance.get())
+                .filter(balance -> balance != RETIRED)
+                .map(balance -> Money.toDecimal(balance.minorUnits(), scale));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${bank.balance-engine.flush-interval-ms:200}")
+    public void flush() {
+        if (writeAheadLog.isPresent() && writeAheadLog.get().isFailed()) {
+            return;
+        }
+        // Taken before the lock, so no operation waits for the log to sync and rotate. An operation
+        // holds the read lock from before it appends its record until its balances are published,
+        // so every record below the boundary belongs to an operation published by the time the
+        // write lock is granted, and its balances are in the snapshot below.
+        Optional<Long> checkpoint = writeAheadLog.map(WriteAheadLog::checkpoint);
+        Map<AccountState, Balance> balances = new HashMap<>();
+        transferLock.writeLock().lock();
+        try {
+            for (AccountState state; (state = dirtyStates.poll()) != null; ) {
+                // Cleared before the balance is read, so a change made after the read marks it dirty again
+                state.dirty.set(false);
+                balances.put(state, state.balance.get());
+            }
+        } finally {
+            transferLock.writeLock().unlock();
+        }
+        List<TransactionHistoryEntity> history = new ArrayList<>();
+        for (TransactionHistoryEntity record; (record = pendingHistory.poll()) != null; ) {
+            history.add(record);
+        }
+        if (balances.isEmpty() && history.isEmpty()) {
+            checkpoint.ifPresent(boundary -> writeAheadLog.get().release(boundary));
+            evictIdle();
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                balances.forEach((state, balance) -> accountRepository.updateBalanceAndVersion(state.account.getId(),
+                        Money.toDecimal(balance.minorUnits(), scale), balance.version()));
+                transactionHistoryService.recordAll(history);
+            });
+            balances.forEach((state, balance) -> {
+                state.flushedVersion = balance.version();
+                accountCache.evict(state.account.getAccountNumber());
+            });
+            pendingHistoryPermits.release(history.size());
+        } catch (RuntimeException e) {
+            balances.keySet().forEach(AccountState::markDirty);
+            history.forEach(record -> record.setId(null));
+            pendingHistory.addAll(history);
+            throw e;
+        }
+        checkpoint.ifPresent(boundary -> writeAheadLog.get().release(boundary));
+        evictIdle();
+    }
+
+    /**
+     * Drops the accounts that have been idle for the eviction period, and while more accounts
+     * than the maximum are held, the least recently checked ones, as long as the database holds
+     * their balance. Each account is checked once per period, so the sweep costs the accounts
+     * due rather than every account held.
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (int checked = states.size(); checked > 0; checked--) {
+            EvictionCheck check = evictionChecks.peek();
+            boolean overCapacity = states.size() > maxAccounts;
+            if (check == null || (check.dueAt() - now > 0 && !overCapacity)) {
+                return;
+            }
+            evictionChecks.poll();
+            AccountState state = check.state();
+            long idleUntil = state.lastUsed + idleEvictionNanos;
+            if (idleUntil - now > 0 && !overCapacity) {
+                evictionChecks.add(new EvictionCheck(state, idleUntil));
+            } else if (state.retire()) {
+                states.remove(state.account.getAccountNumber(), state);
+            } else {
+                evictionChecks.add(new EvictionCheck(state, now + idleEvictionNanos));
+            }
+        }
+    }
+
+    /**
+     * Writes the balances logged by the previous run to the database before any account is
+     * loaded, then releases the log segments they came from.
+     */
+    @PostConstruct
+    public void recover() {
+        writeAheadLog.ifPresent(log -> {
+            long checkpoint = log.checkpoint();
+            Map<String, Long> balances = log.recover();
+            transactionTemplate.executeWithoutResult(status -> balances.forEach((accountNumber, balance) -> {
+                AccountEntity account = accountRepository.findByAccountNumber(accountNumber)
+                        .orElseThrow(() -> new IllegalStateException("The write-ahead log holds a balance for account "
+                                + accountNumber + ", which is not in the database; the database must be durable "
+                                + "when the write-ahead log is enabled"));
+                accountRepository.updateBalance(account.getId(), Money.toDecimal(balance, scale));
+            }));
+            log.release(checkpoint);
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private AccountState stateFor(String accountNumber) {
+        AccountState state = states.get(accountNumber);
+        if (state != null && !state.isRetired()) {
+            state.lastUsed = System.nanoTime();
+            return state;
+        }
+        if (state != null) {
+            states.remove(accountNumber, state);
+        }
+        AccountEntity account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+        AccountState loaded = new AccountState(account, Money.toMinorUnits(account.getBalance(), scale));
+        AccountState existing = states.putIfAbsent(accountNumber, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        evictionChecks.add(new EvictionCheck(loaded, loaded.lastUsed + idleEvictionNanos));
+        return loaded;
+    }
+
+    /**
+     * The balance of an account in minor units, a version that grows with every change of it made
+     * since the account was loaded, and when the change that produced it occurred.
+     */
+    private record Balance(long minorUnits, long version, Instant occurredAt) {
+    }
+
+    /**
+     * Replaces the balance of an account dropped from memory, so that an operation still holding
+     * its state fails its compare-and-set and looks the account up again.
+     */
+    private static final Balance RETIRED = new Balance(0, -1, Instant.EPOCH);
+
+    private record Transferred(Balance source, Balance target) {
+    }
+
+    /**
+     * When an account is next due to be checked for eviction. Every account held has one.
+     */
+    private record EvictionCheck(AccountState state, long dueAt) {
+    }
+
+    private final class AccountState {
+
+        private final AccountEntity account;
+        private final AtomicReference<Balance> balance;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastUsed = System.nanoTime();
+
+        /**
+         * The version of the latest balance the database holds.
+         */
+        private volatile long flushedVersion;
+
+        /**
+         * The balance of the latest operation appended to the write-ahead log, guarded by the lock.
+         * It is ahead of the published balance while that operation waits for its record to be durable.
+         */
+        private Balance logged;
+
+        private AccountState(AccountEntity account, long balance) {
+            this.account = account;
+            this.balance = new AtomicReference<>(new Balance(balance, account.getVersion(), Instant.EPOCH));
+            this.logged = this.balance.get();
+            this.flushedVersion = account.getVersion();
+        }
+
+        /**
+         * Stamps the change inside the compare-and-set, at least a microsecond after the previous
+         * one, so a later change of the account never sorts before an earlier one.
+         */
+        private Balance update(LongUnaryOperator operation) {
+            while (true) {
+                Balance current = balance.get();
+                if (current == RETIRED) {
+                    return null;
+                }
+                Balance updated = next(current, operation);
+                if (balance.compareAndSet(current, updated)) {
+                    markDirty();
+                    return updated;
+                }
+            }
+        }
+
+        /**
+         * Computes the balance an operation leaves after the latest logged one, without publishing
+         * it. Must be called under the lock.
+         */
+        private Balance prepare(LongUnaryOperator operation) {
+            return logged == RETIRED ? null : next(logged, operation);
+        }
+
+        /**
+         * Publishes a logged balance once its record is durable. Records become durable in the order
+         * they were appended, but their operations may wake up in any order, so an older balance
+         * never replaces a newer one.
+         */
+        private void publish(Balance updated) {
+            balance.accumulateAndGet(updated, (current, candidate) ->
+                    candidate.version() > current.version() ? candidate : current);
+            markDirty();
+        }
+
+        private void markDirty() {
+            if (dirty.compareAndSet(false, true)) {
+                dirtyStates.add(this);
+            }
+        }
+
+        private boolean isRetired() {
+            return balance.get() == RETIRED;
+        }
+
+        /**
+         * Replaces the balance with {@link #RETIRED} if the database holds it and no operation is
+         * waiting for its log record, so no change of the account can be lost with its state.
+         */
+        private boolean retire() {
+            lock.lock();
+            try {
+                Balance current = balance.get();
+                if (dirty.get() || current.version() != flushedVersion
+                        || (writeAheadLog.isPresent() && logged != current)
+                        || !balance.compareAndSet(current, RETIRED)) {
+                    return false;
+                }
+                logged = RETIRED;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void discardLogged() {
+            lock.lock();
+            try {
+                logged = balance.get();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static Balance next(Balance current, LongUnaryOperator operation) {
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            Instant occurredAt = now.isAfter(current.occurredAt())
+                    ? now
+                    : current.occurredAt().plus(1, ChronoUnit.MICROS);
+            return new Balance(operation.applyAsLong(current.minorUnits()), current.version() + 1, occurredAt);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.response.BalanceChangedEvent;
+import apiabstractmethod.service.BalanceEventBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Delivers balance changes to each subscriber from its own pending buffer, drained on a virtual
+ * thread. Publishing never waits for a subscriber: it only records the change in the buffers of
+ * the matching subscribers, keyed by account number, so a burst of changes to one account costs
+ * a slow subscriber a single entry. With nobody subscribed, publishing returns immediately.
+ * <p>
+ * Transactions commit, and so publish, in no particular order, so every event carries the
+ * version of its account. A pending entry is only replaced by a newer version, and an event is
+ * skipped at delivery when a newer version of its account has been published since, which
+ * keeps a subscriber from ending on a stale balance.
+ */
+@Service
+public class InProcessBalanceEventBus implements BalanceEventBus {
+
+    /**
+     * How long the latest published version of an account is remembered. Commits reach the bus
+     * out of order by far less than this.
+     */
+    private static final Duration VERSION_RETENTION = Duration.ofMinutes(1);
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Cache<String, Long> latestVersions = Caffeine.newBuilder()
+            .expireAfterWrite(VERSION_RETENTION)
+            .build();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int subscriberBuffer;
+    private final Counter dropped;
+
+    public InProcessBalanceEventBus(MeterRegistry meterRegistry,
+                                    @Value("${bank.events.subscriber-buffer:1024}") int subscriberBuffer) {
+        this.subscriberBuffer = subscriberBuffer;
+        this.dropped = meterRegistry.counter("bank.events.subscribers.dropped");
+        Gauge.builder("bank.events.subscribers", subscribers, List::size).register(meterRegistry);
+    }
+
+    @Override
+    public void publish(AccountEntity account) {
+        publish(account, null);
+    }
+
+    @Override
+    public void publish(AccountEntity account, long version) {
+        publish(account, Long.valueOf(version));
+    }
+
+    /**
+     * Reads the account only once its transaction committed, when a managed entity holds the
+     * version its flush wrote.
+     */
+    private void publish(AccountEntity account, Long version) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(eventOf(account, version));
+                }
+            });
+        } else {
+            dispatch(eventOf(account, version));
+        }
+    }
+
+    private static BalanceChangedEvent eventOf(AccountEntity account, Long version) {
+        return new BalanceChangedEvent(account.getAccountNumber(), account.getBalance(),
+                version != null ? version : account.getVersion(), Instant.now());
+    }
+
+    @Override
+    public Subscription subscribe(Set<String> accountNumbers, Consumer<BalanceChangedEvent> listener, Runnable onClose) {
+        Subscriber subscriber = new Subscriber(Set.copyOf(accountNumbers), listener, onClose);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        executor.shutdown();
+    }
+
+    private void dispatch(BalanceChangedEvent event) {
+        long latest = latestVersions.asMap().merge(event.getAccountNumber(), event.getVersion(), Math::max);
+        if (latest > event.getVersion()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accountNumbers.isEmpty() || subscriber.accountNumbers.contains(event.getAccountNumber())) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private boolean isStale(BalanceChangedEvent event) {
+        Long latest = latestVersions.getIfPresent(event.getAccountNumber());
+        return latest != null && latest > event.getVersion();
+    }
+
+    private final class Subscriber implements Subscription {
+
+        private final Set<String> accountNumbers;
+        private final Consumer<BalanceChangedEvent> listener;
+        private final Runnable onClose;
+        private final Map<String, BalanceChangedEvent> pending = new LinkedHashMap<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(Set<String> accountNumbers, Consumer<BalanceChangedEvent> listener, Runnable onClose) {
+            this.accountNumbers = accountNumbers;
+            this.listener = listener;
+            this.onClose = onClose;
+        }
+
+        private void offer(BalanceChangedEvent event) {
+            boolean overflow;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                pending.merge(event.getAccountNumber(), event,
+                        (queued, offered) -> offered.getVersion() > queued.getVersion() ? offered : queued);
+                overflow = pending.size() > subscriberBuffer;
+                if (!overflow) {
+                    if (draining) {
+                        return;
+                    }
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                dropped.increment();
+                close();
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<BalanceChangedEvent> events;
+                synchronized (this) {
+                    if (closed || pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    events = new ArrayList<>(pending.values());
+                    pending.clear();
+                }
+                try {
+                    for (BalanceChangedEvent event : events) {
+                        if (!isStale(event)) {
+                            listener.accept(event);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    close();
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            subscribers.remove(this);
+            onClose.run();
+        }
+    }
+}
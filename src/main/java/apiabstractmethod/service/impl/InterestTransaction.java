@@ -0,0 +1,56 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.service.Transaction;
+import lombok.Getter;
+import java.math.BigDecimal;
+
+/**
+ * Credits interest earned on an account. The amount is worked out by the caller, usually the
+ * accrual job from the rate of the account's type.
+ */
+@Getter
+public class InterestTransaction implements Transaction {
+
+    private final BigDecimal amount;
+    private final AccountEntity account;
+    private static final String TYPE = "INTEREST";
+
+    public InterestTransaction(BigDecimal amount, AccountEntity account) {
+        this.amount = amount;
+        this.account = account;
+    }
+
+    @Override
+    public AccountEntity execute() {
+        return apply(amount, account);
+    }
+
+    /**
+     * Interest rules applied in place to an account.
+     */
+    public static AccountEntity apply(BigDecimal amount, AccountEntity account) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Interest amount must be positive");
+        }
+
+        account.setBalance(account.getBalance().add(amount));
+
+        return account;
+    }
+
+    /**
+     * Interest rules on balances held in minor units.
+     */
+    public static long apply(long balance, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Interest amount must be positive");
+        }
+        return Math.addExact(balance, amount);
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,286 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.AccountNotFoundException;
+import apiabstractmethod.metrics.TransactionMetrics;
+import apiabstractmethod.metrics.TransactionMetrics.Phase;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.LedgerEntryEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.repository.LedgerEntryRepository;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.CounterpartyTransactionFactory;
+import apiabstractmethod.service.LedgerService;
+import apiabstractmethod.service.TransactionFactory;
+import apiabstractmethod.service.TransactionHistoryService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records every transaction as an immutable ledger entry carrying a per-account sequence number
+ * and the resulting balance. Appending never updates the account row, and never reads the
+ * ledger either: the latest committed entry of every account appended to is kept in memory as
+ * the account's tail, seeded from the ledger on its first append. An append locks the tail
+ * until its transaction completes, so appends to one account take consecutive sequences
+ * without colliding, while appends to different accounts never wait on each other. A transfer
+ * locks its two tails in account number order.
+ * <p>
+ * Committed appends mark their account dirty, and a periodic projection writes the tails of the
+ * dirty accounts to their balance snapshots without scanning the ledger. Entries left
+ * unprojected by a previous run are projected once on startup.
+ * <p>
+ * The tails assume the application is the only writer of the ledger. Should another writer take
+ * a sequence first, the (accountNumber, sequence) unique key rejects the append, which is
+ * retried as an optimistic locking failure against a tail seeded afresh.
+ */
+@Service
+@ConditionalOnProperty(name = "bank.ledger.enabled", havingValue = "true")
+public class LedgerServiceImpl implements LedgerService {
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountCache accountCache;
+    private final TransactionMetrics transactionMetrics;
+    private final BalanceEventBus balanceEventBus;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final int projectionBatchSize;
+    private final ConcurrentMap<String, Tail> tails = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    public LedgerServiceImpl(AccountRepository accountRepository, LedgerEntryRepository ledgerEntryRepository,
+                             AccountCache accountCache, TransactionMetrics transactionMetrics,
+                             BalanceEventBus balanceEventBus, TransactionHistoryService transactionHistoryService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${bank.ledger.projection-batch-size:500}") int projectionBatchSize) {
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.accountCache = accountCache;
+        this.transactionMetrics = transactionMetrics;
+        this.balanceEventBus = balanceEventBus;
+        this.transactionHistoryService = transactionHistoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.projectionBatchSize = projectionBatchSize;
+    }
+
+    @Override
+    public AccountEntity append(TransactionFactory factory, String accountNumber, BigDecimal amount) {
+        TransactionType type = factory.getTransactionType();
+        long start = System.nanoTime();
+        Tail tail = lock(accountNumber);
+        AccountEntity current = currentState(accountNumber, tail);
+        start = transactionMetrics.record(type, Phase.LOOKUP, start);
+
+        AccountEntity updated = factory.execute(amount, current);
+        start = transactionMetrics.record(type, Phase.EXECUTE, start);
+
+        appendEntry(tail, updated, type.name(), amount);
+        transactionHistoryService.record(updated, type.name(), amount);
+        transactionMetrics.record(type, Phase.PERSIST, start);
+        balanceEventBus.publish(updated, updated.getLedgerSequence());
+        return updated;
+    }
+
+    @Override
+    public AccountEntity appendTransfer(CounterpartyTransactionFactory factory, String accountNumber,
+                                       String counterpartyAccountNumber, BigDecimal amount) {
+        TransactionType type = factory.getTransactionType();
+        long start = System.nanoTime();
+        boolean sourceLockedFirst = accountNumber.compareTo(counterpartyAccountNumber) < 0;
+        Tail firstTail = lock(sourceLockedFirst ? accountNumber : counterpartyAccountNumber);
+        Tail secondTail = lock(sourceLockedFirst ? counterpartyAccountNumber : accountNumber);
+        Tail sourceTail = sourceLockedFirst ? firstTail : secondTail;
+        Tail targetTail = sourceLockedFirst ? secondTail : firstTail;
+        AccountEntity source = currentState(accountNumber, sourceTail);
+        AccountEntity target = currentState(counterpartyAccountNumber, targetTail);
+        start = transactionMetrics.record(type, Phase.LOOKUP, start);
+
+        factory.execute(amount, source, target);
+        start = transactionMetrics.record(type, Phase.EXECUTE, start);
+
+        if (source.getId() < target.getId()) {
+            appendEntry(sourceTail, source, type.name() + "_OUT", amount);
+            appendEntry(targetTail, target, type.name() + "_IN", amount);
+        } else {
+            appendEntry(targetTail, target, type.name() + "_IN", amount);
+            appendEntry(sourceTail, source, type.name() + "_OUT", amount);
+        }
+        transactionHistoryService.record(source, type.name() + "_OUT", amount);
+        transactionHistoryService.record(target, type.name() + "_IN", amount);
+        transactionMetrics.record(type, Phase.PERSIST, start);
+        balanceEventBus.publish(source, source.getLedgerSequence());
+        balanceEventBus.publish(target, target.getLedgerSequence());
+        return source;
+    }
+
+    /**
+     * Locks the tail of an account until the current transaction completes. On commit the tail
+     * moves to the entries the transaction appended and the account is marked dirty; on
+     * rollback it stays where it was.
+     */
+    private Tail lock(String accountNumber) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Ledger appends must run inside a database transaction");
+        }
+        Tail tail = tails.computeIfAbsent(accountNumber, key -> new Tail());
+        tail.lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED && tail.pending != tail.committed) {
+                        tail.committed = tail.pending;
+                        dirty.add(accountNumber);
+                    } else {
+                        tail.pending = tail.committed;
+                    }
+                } finally {
+                    tail.lock.unlock();
+                }
+            }
+        });
+        return tail;
+    }
+
+    /**
+     * Returns a detached copy of the account holding the balance and ledger sequence of its
+     * tail, seeding the tail from the latest ledger entry, or from the snapshot when nothing was
+     * appended since, if the account has none yet.
+     */
+    private AccountEntity currentState(String accountNumber, Tail tail) {
+        AccountEntity account = accountCache.get(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+        if (tail.pending == null) {
+            Entry seed = ledgerEntryRepository.findTopByAccountNumberOrderBySequenceDesc(accountNumber)
+                    .filter(latest -> latest.getSequence() > account.getLedgerSequence())
+                    .map(latest -> new Entry(latest.getSequence(), latest.getBalanceAfter()))
+                    .orElseGet(() -> new Entry(account.getLedgerSequence(), account.getBalance()));
+            tail.committed = seed;
+            tail.pending = seed;
+        }
+        account.setBalance(tail.pending.balance());
+        account.setLedgerSequence(tail.pending.sequence());
+        return account;
+    }
+
+    private void appendEntry(Tail tail, AccountEntity account, String type, BigDecimal amount) {
+        long sequence = account.getLedgerSequence() + 1;
+        try {
+            ledgerEntryRepository.saveAndFlush(new LedgerEntryEntity(
+                    null,
+                    account.getAccountNumber(),
+                    sequence,
+                    type,
+                    amount,
+                    account.getBalance(),
+                    Instant.now()
+            ));
+        } catch (DataIntegrityViolationException e) {
+            tail.committed = null;
+            tail.pending = null;
+            throw new OptimisticLockingFailureException("Concurrent ledger append on account " + account.getAccountNumber(), e);
+        }
+        account.setLedgerSequence(sequence);
+        tail.pending = new Entry(sequence, account.getBalance());
+    }
+
+    /**
+     * Reads nothing for an account that was not appended to since startup, whose snapshot the
+     * startup projection brought up to date, so listing accounts costs no query per account.
+     */
+    @Override
+    public BigDecimal currentBalance(AccountEntity account) {
+        Tail tail = tails.get(account.getAccountNumber());
+        if (tail == null) {
+            return account.getBalance();
+        }
+        Entry latest = tail.committed;
+        if (latest != null) {
+            return latest.sequence() > account.getLedgerSequence() ? latest.balance() : account.getBalance();
+        }
+        return ledgerEntryRepository.findTopByAccountNumberOrderBySequenceDesc(account.getAccountNumber())
+                .filter(entry -> entry.getSequence() > account.getLedgerSequence())
+                .map(LedgerEntryEntity::getBalanceAfter)
+                .orElse(account.getBalance());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${bank.ledger.projection-interval-ms:1000}")
+    public void project() {
+        // Bounded by the accounts dirty on entry, so a steady stream of appends cannot keep it running
+        int remaining = dirty.size();
+        while (remaining > 0) {
+            List<String> accountNumbers = dirty.stream().limit(Math.min(remaining, projectionBatchSize)).toList();
+            if (accountNumbers.isEmpty()) {
+                return;
+            }
+            remaining -= accountNumbers.size();
+            accountNumbers.forEach(dirty::remove);
+            try {
+                transactionTemplate.executeWithoutResult(status -> accountNumbers.forEach(accountNumber -> {
+                    Entry latest = tails.get(accountNumber).committed;
+                    if (latest != null) {
+                        accountRepository.updateSnapshot(accountNumber, latest.balance(), latest.sequence());
+                    }
+                }));
+            } catch (RuntimeException e) {
+                dirty.addAll(accountNumbers);
+                throw e;
+            }
+            accountNumbers.forEach(accountCache::evict);
+        }
+    }
+
+    /**
+     * Projects the entries a previous run appended but did not project, which is the only time
+     * the ledger is scanned for accounts behind their snapshot.
+     */
+    @PostConstruct
+    public void recover() {
+        List<String> behind;
+        do {
+            behind = ledgerEntryRepository.findAccountNumbersBehindSnapshot(PageRequest.of(0, projectionBatchSize));
+            List<String> accountNumbers = behind;
+            transactionTemplate.executeWithoutResult(status -> accountNumbers.forEach(accountNumber ->
+                    ledgerEntryRepository.findTopByAccountNumberOrderBySequenceDesc(accountNumber)
+                            .ifPresent(entry -> accountRepository.updateSnapshot(
+                                    accountNumber, entry.getBalanceAfter(), entry.getSequence()))));
+            accountNumbers.forEach(accountCache::evict);
+        } while (behind.size() == projectionBatchSize);
+    }
+
+    private record Entry(long sequence, BigDecimal balance) {
+    }
+
+    private static final class Tail {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        /**
+         * The latest committed entry, or null until the tail is seeded.
+         */
+        private volatile Entry committed;
+        /**
+         * The latest entry appended by the transaction holding the lock; guarded by the lock.
+         */
+        private Entry pending;
+    }
+}
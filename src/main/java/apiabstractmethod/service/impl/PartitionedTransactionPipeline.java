@@ -0,0 +1,306 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.AccountNotFoundException;
+import apiabstractmethod.exception.RateLimitExceededException;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.TransactionFactory;
+import apiabstractmethod.service.TransactionHistoryService;
+import apiabstractmethod.service.TransactionPipeline;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes every single-account transaction to one of N partitions by account number. Each
+ * partition has a bounded queue drained by a single writer thread. The writer takes whatever has
+ * queued up, to the configured batch size, and runs the transactions of each account back to back
+ * on one in-memory copy of the account. It then commits all the resulting balances in one
+ * database transaction. A hot account therefore costs one conditional update per batch rather
+ * than one per request, and requests never contend with each other for its row.
+ * <p>
+ * Transfers touch two partitions and keep using the optimistic path. If one of them changes a row
+ * that a batch has read, the batch's version check fails and the whole batch is re-run against
+ * fresh state, after the same jittered exponential backoff the optimistic path uses. A full queue blocks the submitter, which pushes back on request threads, for up to
+ * the submit timeout, after which the transaction is rejected.
+ * <p>
+ * Every submitted future is completed: a writer that fails on anything, errors included, fails
+ * the futures of its batch and carries on, and transactions still queued when the pipeline has
+ * shut down, or submitted while it was shutting down, are failed.
+ */
+@Service
+@ConditionalOnProperty(name = "bank.pipeline.enabled", havingValue = "true")
+public class PartitionedTransactionPipeline implements TransactionPipeline {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final BalanceEventBus balanceEventBus;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSizes;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final Duration submitTimeout;
+    private final List<BlockingQueue<Task>> partitions;
+    private final List<Thread> writers;
+    private volatile boolean running = true;
+
+    public PartitionedTransactionPipeline(AccountRepository accountRepository, AccountCache accountCache,
+                                          BalanceEventBus balanceEventBus, TransactionHistoryService transactionHistoryService,
+                                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                          @Value("${bank.pipeline.partitions:0}") int partitionCount,
+                                          @Value("${bank.pipeline.queue-capacity:1024}") int queueCapacity,
+                                          @Value("${bank.pipeline.batch-size:256}") int batchSize,
+                                          @Value("${bank.pipeline.submit-timeout:5s}") Duration submitTimeout,
+                                          @Value("${bank.transactions.retry.max-attempts:8}") int maxAttempts,
+                                          @Value("${bank.transactions.retry.backoff-ms:5}") long backoffMs,
+                                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.balanceEventBus = balanceEventBus;
+        this.transactionHistoryService = transactionHistoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSizes = DistributionSummary.builder("bank.pipeline.batch.size")
+                .description("Transactions committed together by a pipeline writer")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.submitTimeout = submitTimeout;
+
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        Thread.Builder threads = virtualThreads
+                ? Thread.ofVirtual().name("transaction-pipeline-", 0)
+                : Thread.ofPlatform().name("transaction-pipeline-", 0);
+        this.partitions = new ArrayList<>(count);
+        this.writers = new ArrayList<>(count);
+        for (int partition = 0; partition < count; partition++) {
+            BlockingQueue<Task> queue = new ArrayBlockingQueue<>(queueCapacity);
+            Gauge.builder("bank.pipeline.queue.depth", queue, BlockingQueue::size)
+                    .description("Transactions waiting for a pipeline writer")
+                    .tag("partition", String.valueOf(partition))
+                    .register(meterRegistry);
+            partitions.add(queue);
+            writers.add(threads.start(() -> drain(queue)));
+        }
+    }
+
+    @Override
+    public CompletableFuture<AccountEntity> submit(TransactionFactory factory, String accountNumber, BigDecimal amount) {
+        if (!running) {
+            throw shutDown();
+        }
+        Task task = new Task(factory, accountNumber, amount);
+        BlockingQueue<Task> queue = partitions.get(Math.floorMod(accountNumber.hashCode(), partitions.size()));
+        try {
+            if (!queue.offer(task, submitTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RateLimitExceededException("Too many transactions queued, please retry later", submitTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a transaction", e);
+        }
+        // Queued after the writer saw the queue empty and exited: nobody would ever take it
+        if (!running && queue.remove(task)) {
+            task.future.completeExceptionally(shutDown());
+        }
+        return task.future;
+    }
+
+    private static IllegalStateException shutDown() {
+        return new IllegalStateException("Transaction pipeline is shut down");
+    }
+
+    /**
+     * Stops accepting transactions and waits for the writers to commit what is already queued,
+     * then fails whatever a writer that stopped early left behind.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        partitions.forEach(PartitionedTransactionPipeline::failQueued);
+    }
+
+    private void drain(BlockingQueue<Task> queue) {
+        List<Task> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Task first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchSizes.record(batch.size());
+                try {
+                    process(batch);
+                } catch (Throwable e) {
+                    batch.forEach(task -> task.future.completeExceptionally(e));
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            failQueued(queue);
+        }
+    }
+
+    private static void failQueued(BlockingQueue<Task> queue) {
+        List<Task> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        queued.forEach(task -> task.future.completeExceptionally(shutDown()));
+    }
+
+    /**
+     * Commits a batch, re-running it against fresh state when a concurrent writer changed one of
+     * its accounts, and completes every task only once the outcome is durable.
+     */
+    private void process(List<Task> batch) {
+        Map<String, List<Task>> byAccount = new LinkedHashMap<>();
+        for (Task task : batch) {
+            byAccount.computeIfAbsent(task.accountNumber, accountNumber -> new ArrayList<>()).add(task);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<AccountEntity> written = transactionTemplate.execute(status -> executeBatch(byAccount));
+                written.forEach(accountCache::put);
+                written.forEach(balanceEventBus::publish);
+                batch.forEach(Task::complete);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                byAccount.keySet().forEach(accountCache::evict);
+                if (attempt >= maxAttempts || !backOff(attempt)) {
+                    batch.forEach(task -> task.future.completeExceptionally(e));
+                    return;
+                }
+            } catch (RuntimeException e) {
+                byAccount.keySet().forEach(accountCache::evict);
+                batch.forEach(task -> task.future.completeExceptionally(e));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sleeps a random (full jitter) exponential backoff before the next attempt, so the writer
+     * stops colliding with the transfer that changed its accounts. Returns false if interrupted.
+     */
+    private boolean backOff(int attempt) {
+        long ceiling = backoffMs << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Runs the transactions of each account in order on one copy of the account. A rejected
+     * transaction leaves the balance untouched and does not affect the others. Changed accounts
+     * are written in id order, the same order transfers lock their rows in.
+     */
+    private List<AccountEntity> executeBatch(Map<String, List<Task>> byAccount) {
+        List<AccountEntity> changed = new ArrayList<>(byAccount.size());
+        for (Map.Entry<String, List<Task>> entry : byAccount.entrySet()) {
+            Optional<AccountEntity> found = accountCache.get(entry.getKey());
+            if (found.isEmpty()) {
+                AccountNotFoundException notFound = new AccountNotFoundException(entry.getKey());
+                entry.getValue().forEach(task -> task.reject(notFound));
+                continue;
+            }
+            AccountEntity account = found.get();
+            boolean modified = false;
+            for (Task task : entry.getValue()) {
+                try {
+                    task.factory.execute(task.amount, account);
+                    task.accept(account.copyWithBalance(account.getBalance()));
+                    transactionHistoryService.record(account, task.factory.getTransactionType().name(), task.amount);
+                    modified = true;
+                } catch (IllegalArgumentException e) {
+                    task.reject(e);
+                }
+            }
+            if (modified) {
+                changed.add(account);
+            }
+        }
+
+        changed.sort(Comparator.comparing(AccountEntity::getId));
+        for (AccountEntity account : changed) {
+            int updated = accountRepository.updateBalanceIfVersion(account.getId(), account.getBalance(), account.getVersion());
+            if (updated == 0) {
+                throw new ObjectOptimisticLockingFailureException(AccountEntity.class, account.getId());
+            }
+            account.setVersion(account.getVersion() + 1);
+        }
+        return changed;
+    }
+
+    private static final class Task {
+
+        private final TransactionFactory factory;
+        private final String accountNumber;
+        private final BigDecimal amount;
+        private final CompletableFuture<AccountEntity> future = new CompletableFuture<>();
+        private AccountEntity result;
+        private RuntimeException error;
+
+        private Task(TransactionFactory factory, String accountNumber, BigDecimal amount) {
+            this.factory = factory;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+        }
+
+        private void accept(AccountEntity account) {
+            result = account;
+            error = null;
+        }
+
+        private void reject(RuntimeException e) {
+            result = null;
+            error = e;
+        }
+
+        private void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
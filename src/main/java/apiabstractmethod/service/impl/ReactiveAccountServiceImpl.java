@@ -0,0 +1,107 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.mapper.AccountMapper;
+import apiabstractmethod.mapper.TransactionHistoryMapper;
+import apiabstractmethod.model.HistoryCursor;
+import apiabstractmethod.model.entity.AccountRow;
+import apiabstractmethod.model.entity.TransactionHistoryRow;
+import apiabstractmethod.repository.ReactiveAccountRepository;
+import apiabstractmethod.repository.ReactiveTransactionHistoryRepository;
+import apiabstractmethod.request.AccountRequest;
+import apiabstractmethod.response.AccountPageResponse;
+import apiabstractmethod.response.AccountResponse;
+import apiabstractmethod.response.TransactionHistoryPageResponse;
+import apiabstractmethod.service.ReactiveAccountService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final ReactiveAccountRepository accountRepository;
+    private final ReactiveTransactionHistoryRepository transactionHistoryRepository;
+    private final AccountMapper accountMapper;
+    private final TransactionHistoryMapper transactionHistoryMapper;
+    private final int listPrefetch;
+
+    public ReactiveAccountServiceImpl(ReactiveAccountRepository accountRepository,
+                                      ReactiveTransactionHistoryRepository transactionHistoryRepository,
+                                      AccountMapper accountMapper, TransactionHistoryMapper transactionHistoryMapper,
+                                      @Value("${bank.reactive.list-prefetch:256}") int listPrefetch) {
+        this.accountRepository = accountRepository;
+        this.transactionHistoryRepository = transactionHistoryRepository;
+        this.accountMapper = accountMapper;
+        this.transactionHistoryMapper = transactionHistoryMapper;
+        this.listPrefetch = listPrefetch;
+    }
+
+    /**
+     * Takes the id from the same sequence Hibernate draws its pooled blocks from. Each value is
+     * the top of a block nobody else will be handed, so the id cannot collide with one assigned
+     * through JPA.
+     */
+    @Override
+    public Mono<AccountResponse> createAccount(AccountRequest request) {
+        AccountRow row = accountMapper.toRow(accountMapper.toEntity(request));
+        return accountRepository.nextId()
+                .flatMap(id -> {
+                    row.setId(id);
+                    return accountRepository.save(row);
+                })
+                .map(this::toResponse);
+    }
+
+    @Override
+    public Mono<AccountResponse> findByAccountNumber(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber).map(this::toResponse);
+    }
+
+    @Override
+    public Mono<AccountPageResponse> findPage(long afterId, int size) {
+        return accountRepository.findByIdGreaterThan(afterId, PageRequest.of(0, size, BY_ID))
+                .map(this::toResponse)
+                .collectList()
+                .map(accounts -> new AccountPageResponse(accounts,
+                        accounts.size() == size ? accounts.get(accounts.size() - 1).getId() : null));
+    }
+
+    @Override
+    public Flux<AccountResponse> findAll() {
+        return accountRepository.findAll(BY_ID)
+                .limitRate(listPrefetch)
+                .map(this::toResponse);
+    }
+
+    @Override
+    public Mono<TransactionHistoryPageResponse> findHistory(String accountNumber, Instant from, Instant to,
+                                                            String cursor, int size) {
+        HistoryCursor position = cursor != null ? HistoryCursor.decode(cursor) : HistoryCursor.before(to);
+        return accountRepository.findByAccountNumber(accountNumber)
+                .flatMap(account -> transactionHistoryRepository
+                        .findPage(accountNumber, from != null ? from : Instant.EPOCH, position.occurredAt(), position.id(), size)
+                        .collectList())
+                .map(records -> {
+                    String nextCursor = null;
+                    if (records.size() == size) {
+                        TransactionHistoryRow last = records.get(records.size() - 1);
+                        nextCursor = new HistoryCursor(last.getOccurredAt(), last.getId()).encode();
+                    }
+                    return new TransactionHistoryPageResponse(accountNumber,
+                            records.stream().map(transactionHistoryMapper::toResponse).toList(), nextCursor);
+                });
+    }
+
+    private AccountResponse toResponse(AccountRow row) {
+        return accountMapper.toResponse(accountMapper.toEntity(row));
+    }
+}
@@ -0,0 +1,213 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.AccountNotFoundException;
+import apiabstractmethod.exception.UnsupportedTransactionTypeException;
+import apiabstractmethod.mapper.AccountMapper;
+import apiabstractmethod.metrics.TransactionMetrics;
+import apiabstractmethod.metrics.TransactionMetrics.Phase;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.TransactionHistoryEntity;
+import apiabstractmethod.repository.ReactiveAccountRepository;
+import apiabstractmethod.repository.ReactiveTransactionHistoryRepository;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.CounterpartyTransactionFactory;
+import apiabstractmethod.service.ReactiveTransactionService;
+import apiabstractmethod.service.TransactionFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionServiceImpl implements ReactiveTransactionService {
+
+    private final ReactiveAccountRepository accountRepository;
+    private final ReactiveTransactionHistoryRepository transactionHistoryRepository;
+    private final AccountMapper accountMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final BalanceEventBus balanceEventBus;
+    private final TransactionFactory[] transactionFactories;
+    private final String[] availableTransactionTypes;
+    private final TransactionMetrics transactionMetrics;
+    private final RetryBackoffSpec optimisticRetry;
+
+    public ReactiveTransactionServiceImpl(ReactiveAccountRepository accountRepository,
+                                          ReactiveTransactionHistoryRepository transactionHistoryRepository,
+                                          AccountMapper accountMapper,
+                                          TransactionalOperator transactionalOperator, BalanceEventBus balanceEventBus,
+                                          List<TransactionFactory> factories,
+                                          MeterRegistry meterRegistry, TransactionMetrics transactionMetrics,
+                                          @Value("${bank.transactions.retry.max-attempts:8}") int maxAttempts,
+                                          @Value("${bank.transactions.retry.backoff-ms:5}") long backoffMs) {
+        this.accountRepository = accountRepository;
+        this.transactionHistoryRepository = transactionHistoryRepository;
+        this.accountMapper = accountMapper;
+        this.transactionalOperator = transactionalOperator;
+        this.balanceEventBus = balanceEventBus;
+        this.transactionFactories = TransactionFactory.byTransactionType(factories);
+        this.availableTransactionTypes = factories.stream()
+                .map(factory -> factory.getTransactionType().name())
+                .toArray(String[]::new);
+        this.transactionMetrics = transactionMetrics;
+        Counter retries = meterRegistry.counter("bank.transactions.optimistic.retries");
+        Counter retriesExhausted = meterRegistry.counter("bank.transactions.optimistic.retries.exhausted");
+        this.optimisticRetry = Retry.backoff(maxAttempts - 1, Duration.ofMillis(Math.max(backoffMs, 1)))
+                .jitter(1.0)
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> {
+                    retriesExhausted.increment();
+                    return signal.failure();
+                });
+    }
+
+    /**
+     * Reads the account, executes the transaction against it and writes the new balance with a
+     * conditional update on the version it was read at. Losing that check re-runs the whole read
+     * and execute after a randomised exponential delay, without holding a thread while waiting.
+     */
+    @Override
+    public Mono<TransactionResponse> processTransaction(TransactionRequest request) {
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    TransactionFactory factory = resolveFactory(request);
+                    Mono<AccountEntity> updatedAccount = factory instanceof CounterpartyTransactionFactory counterpartyFactory
+                            ? executeTransfer(counterpartyFactory, request)
+                            : execute(factory, request);
+                    return updatedAccount
+                            .retryWhen(optimisticRetry)
+                            .map(account -> {
+                                transactionMetrics.record(factory.getTransactionType(), Phase.TOTAL, start);
+                                transactionMetrics.success(factory.getTransactionType());
+                                return successResponse(request, account);
+                            });
+                })
+                .doOnError(RuntimeException.class, transactionMetrics::failure);
+    }
+
+    @Override
+    public Flux<TransactionResponse> processBatch(List<TransactionRequest> requests) {
+        return Flux.fromIterable(requests)
+                .concatMap(request -> processTransaction(request)
+                        .onErrorResume(IllegalArgumentException.class,
+                                e -> Mono.just(failedResponse(request, e.getMessage()))));
+    }
+
+    private Mono<AccountEntity> execute(TransactionFactory factory, TransactionRequest request) {
+        return findAccount(request.getAccountNumber())
+                .map(account -> factory.execute(request.getAmount(), account))
+                .flatMap(account -> updateIfVersion(account)
+                        .then(recordHistory(account, factory.getTransactionType().name(), request.getAmount()))
+                        .as(transactionalOperator::transactional)
+                        .thenReturn(account))
+                .doOnNext(balanceEventBus::publish);
+    }
+
+    /**
+     * Executes a transfer against both accounts and writes both balances in one database
+     * transaction, issuing the conditional updates in account id order so that opposite
+     * transfers between the same accounts cannot deadlock.
+     */
+    private Mono<AccountEntity> executeTransfer(CounterpartyTransactionFactory factory, TransactionRequest request) {
+        String target = request.getTargetAccountNumber();
+        if (target == null || target.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Target account number is required for " + factory.getTransactionType()));
+        }
+        if (target.equals(request.getAccountNumber())) {
+            return Mono.error(new IllegalArgumentException("Source and target accounts must be different"));
+        }
+        return Mono.zip(findAccount(request.getAccountNumber()), findAccount(target))
+                .flatMap(accounts -> {
+                    AccountEntity source = accounts.getT1();
+                    AccountEntity counterparty = accounts.getT2();
+                    factory.execute(request.getAmount(), source, counterparty);
+                    boolean sourceFirst = source.getId() < counterparty.getId();
+                    String type = factory.getTransactionType().name();
+                    return updateIfVersion(sourceFirst ? source : counterparty)
+                            .then(updateIfVersion(sourceFirst ? counterparty : source))
+                            .then(recordHistory(source, type + "_OUT", request.getAmount()))
+                            .then(recordHistory(counterparty, type + "_IN", request.getAmount()))
+                            .as(transactionalOperator::transactional)
+                            .then(Mono.fromRunnable(() -> {
+                                balanceEventBus.publish(source);
+                                balanceEventBus.publish(counterparty);
+                            }))
+                            .thenReturn(source);
+                });
+    }
+
+    private Mono<AccountEntity> findAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .map(accountMapper::toEntity)
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(accountNumber)));
+    }
+
+    private Mono<AccountEntity> updateIfVersion(AccountEntity account) {
+        return accountRepository.updateBalanceIfVersion(account.getId(), account.getBalance(), account.getVersion())
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        return Mono.error(new OptimisticLockingFailureException(
+                                "Account " + account.getId() + " was modified concurrently"));
+                    }
+                    account.setVersion(account.getVersion() + 1);
+                    return Mono.just(account);
+                });
+    }
+
+    private Mono<Integer> recordHistory(AccountEntity account, String transactionType, BigDecimal amount) {
+        return Mono.defer(() -> {
+            TransactionHistoryEntity record = TransactionHistoryEntity.of(account, transactionType, amount);
+            return transactionHistoryRepository.insert(record.getAccountNumber(), record.getTransactionType(),
+                    record.getAmount(), record.getBalanceAfter(), record.getOccurredAt());
+        });
+    }
+
+    private TransactionFactory resolveFactory(TransactionRequest request) {
+        TransactionType transactionType = request.getTransactionType();
+        TransactionFactory factory = transactionType != null ? transactionFactories[transactionType.ordinal()] : null;
+        if (factory == null) {
+            throw new UnsupportedTransactionTypeException(request.getTransactionTypeName());
+        }
+        return factory;
+    }
+
+    private TransactionResponse successResponse(TransactionRequest request, AccountEntity updatedAccount) {
+        return new TransactionResponse(
+                request.getTransactionTypeName(),
+                updatedAccount.getAccountNumber(),
+                request.getAmount(),
+                updatedAccount.getBalance(),
+                "SUCCESS",
+                "Transaction processed successfully");
+    }
+
+    private TransactionResponse failedResponse(TransactionRequest request, String message) {
+        return new TransactionResponse(
+                request.getTransactionTypeName(),
+                request.getAccountNumber(),
+                request.getAmount(),
+                null,
+                "FAILED",
+                message);
+    }
+
+    @Override
+    public String[] getAvailableTransactionTypes() {
+        return availableTransactionTypes.clone();
+    }
+}
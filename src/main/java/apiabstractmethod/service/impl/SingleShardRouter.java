@@ -0,0 +1,36 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.service.ShardRouter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Router used while sharding is disabled: every account lives in the single configured datasource.
+ */
+@Service
+@ConditionalOnProperty(name = "bank.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class SingleShardRouter implements ShardRouter {
+
+    @Override
+    public int shardCount() {
+        return 1;
+    }
+
+    @Override
+    public int shardOf(String accountNumber) {
+        return 0;
+    }
+
+    @Override
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return work.get();
+    }
+
+    @Override
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        return List.of(work.get());
+    }
+}
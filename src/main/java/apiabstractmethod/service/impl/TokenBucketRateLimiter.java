@@ -0,0 +1,171 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.RateLimitExceededException;
+import apiabstractmethod.service.RateLimiter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per account, per client and for everyone, held in memory. Each bucket is a
+ * single {@link AtomicLong} holding the time at which it will be full again, so taking tokens is
+ * one compare-and-set and never blocks (the GCRA form of a token bucket). Per-account and
+ * per-client buckets live in bounded caches that drop a bucket once it has been idle long
+ * enough to refill completely, which loses nothing.
+ * <p>
+ * Tokens are taken from the global, client and account buckets in turn. When one of them
+ * rejects the request, the tokens already taken from the others are given back, so a request
+ * rejected on a hot account does not use up the budget of its client or of everyone else. A
+ * request asking for more tokens than a bucket can ever hold is rejected as invalid.
+ */
+@Service
+@ConditionalOnProperty(name = "bank.rate-limit.enabled", havingValue = "true")
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    private final Limit accountLimit;
+    private final Limit clientLimit;
+    private final Limit globalLimit;
+    private final Cache<String, TokenBucket> accountBuckets;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final TokenBucket globalBucket = new TokenBucket();
+    private final Ticker ticker;
+
+    @Autowired
+    public TokenBucketRateLimiter(MeterRegistry meterRegistry,
+                                  @Value("${bank.rate-limit.account.rate:50}") double accountRate,
+                                  @Value("${bank.rate-limit.account.burst:100}") int accountBurst,
+                                  @Value("${bank.rate-limit.client.rate:500}") double clientRate,
+                                  @Value("${bank.rate-limit.client.burst:1000}") int clientBurst,
+                                  @Value("${bank.rate-limit.global.rate:0}") double globalRate,
+                                  @Value("${bank.rate-limit.global.burst:0}") int globalBurst,
+                                  @Value("${bank.rate-limit.maximum-buckets:100000}") long maximumBuckets) {
+        this(meterRegistry, accountRate, accountBurst, clientRate, clientBurst, globalRate, globalBurst, maximumBuckets,
+                Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(MeterRegistry meterRegistry, double accountRate, int accountBurst, double clientRate,
+                           int clientBurst, double globalRate, int globalBurst, long maximumBuckets, Ticker ticker) {
+        this.ticker = ticker;
+        this.accountLimit = new Limit(accountRate, accountBurst, meterRegistry.counter("bank.rate-limit.rejected", "limit", "account"));
+        this.clientLimit = new Limit(clientRate, clientBurst, meterRegistry.counter("bank.rate-limit.rejected", "limit", "client"));
+        this.globalLimit = new Limit(globalRate, globalBurst, meterRegistry.counter("bank.rate-limit.rejected", "limit", "global"));
+        this.accountBuckets = buckets(accountLimit, maximumBuckets, ticker);
+        this.clientBuckets = buckets(clientLimit, maximumBuckets, ticker);
+    }
+
+    private static Cache<String, TokenBucket> buckets(Limit limit, long maximumBuckets, Ticker ticker) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumBuckets).ticker(ticker);
+        if (limit.enabled()) {
+            builder.expireAfterAccess(Duration.ofNanos(limit.capacityNanos));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void acquire(String clientId, Collection<String> accountNumbers) {
+        int permits = accountNumbers.size();
+        Map<String, Integer> perAccount = new HashMap<>();
+        accountNumbers.forEach(accountNumber -> perAccount.merge(accountNumber, 1, Integer::sum));
+        checkBurst(globalLimit, permits, "");
+        checkBurst(clientLimit, permits, "");
+        perAccount.forEach((accountNumber, count) -> checkBurst(accountLimit, count, " on account " + accountNumber));
+
+        long now = ticker.read();
+        Deque<Runnable> refunds = new ArrayDeque<>();
+        try {
+            take(globalBucket, globalLimit, permits, now, refunds, "Too many transactions, please retry later");
+            if (clientLimit.enabled()) {
+                take(clientBuckets.get(clientId, key -> new TokenBucket()), clientLimit, permits, now, refunds,
+                        "Too many transactions from client " + clientId);
+            }
+            if (accountLimit.enabled()) {
+                perAccount.forEach((accountNumber, count) ->
+                        take(accountBuckets.get(accountNumber, key -> new TokenBucket()), accountLimit, count, now,
+                                refunds, "Too many transactions on account " + accountNumber));
+            }
+        } catch (RateLimitExceededException e) {
+            refunds.forEach(Runnable::run);
+            throw e;
+        }
+    }
+
+    private static void checkBurst(Limit limit, int permits, String scope) {
+        if (limit.enabled() && permits > limit.burst) {
+            throw new IllegalArgumentException("A request may contain at most " + limit.burst
+                    + " transactions" + scope + ", " + permits + " given");
+        }
+    }
+
+    private static void take(TokenBucket bucket, Limit limit, int permits, long now, Deque<Runnable> refunds,
+                             String message) {
+        if (!limit.enabled()) {
+            return;
+        }
+        long waitNanos = bucket.tryTake(limit, permits, now);
+        if (waitNanos > 0) {
+            limit.rejected.increment();
+            throw new RateLimitExceededException(message, Duration.ofNanos(waitNanos));
+        }
+        refunds.push(() -> bucket.refund(limit, permits));
+    }
+
+    private static final class Limit {
+
+        private final int burst;
+        private final long intervalNanos;
+        private final long capacityNanos;
+        private final Counter rejected;
+
+        private Limit(double ratePerSecond, int burst, Counter rejected) {
+            this.burst = burst;
+            this.intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+            this.capacityNanos = intervalNanos * burst;
+            this.rejected = rejected;
+        }
+
+        private boolean enabled() {
+            return intervalNanos > 0 && burst > 0;
+        }
+    }
+
+    private static final class TokenBucket {
+
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * @return 0 if the tokens were taken, otherwise how long to wait until they are available
+         */
+        private long tryTake(Limit limit, int permits, long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + limit.intervalNanos * permits;
+                long excess = next - now - limit.capacityNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private void refund(Limit limit, int permits) {
+            fullAt.addAndGet(-limit.intervalNanos * permits);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.mapper.TransactionHistoryMapper;
+import apiabstractmethod.model.HistoryCursor;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.TransactionHistoryEntity;
+import apiabstractmethod.repository.TransactionHistoryRepository;
+import apiabstractmethod.response.TransactionHistoryPageResponse;
+import apiabstractmethod.service.ShardRouter;
+import apiabstractmethod.service.TransactionHistoryService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps one history record per account touched by a transaction, holding the balance it left
+ * the account with, next to the account on its shard. Reads seek in the (accountNumber,
+ * occurredAt, id) index, so a page costs the same however long the history grows.
+ */
+@Service
+public class TransactionHistoryServiceImpl implements TransactionHistoryService {
+
+    private final TransactionHistoryRepository transactionHistoryRepository;
+    private final TransactionHistoryMapper transactionHistoryMapper;
+    private final ShardRouter shardRouter;
+
+    public TransactionHistoryServiceImpl(TransactionHistoryRepository transactionHistoryRepository,
+                                         TransactionHistoryMapper transactionHistoryMapper, ShardRouter shardRouter) {
+        this.transactionHistoryRepository = transactionHistoryRepository;
+        this.transactionHistoryMapper = transactionHistoryMapper;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void record(AccountEntity account, String transactionType, BigDecimal amount) {
+        transactionHistoryRepository.save(TransactionHistoryEntity.of(account, transactionType, amount));
+    }
+
+    @Override
+    public void recordAll(Collection<TransactionHistoryEntity> records) {
+        transactionHistoryRepository.saveAll(records);
+    }
+
+    @Override
+    public TransactionHistoryPageResponse findHistory(String accountNumber, Instant from, Instant to, String cursor, int size) {
+        HistoryCursor position = cursor != null ? HistoryCursor.decode(cursor) : HistoryCursor.before(to);
+        List<TransactionHistoryEntity> records = shardRouter.onShardOf(accountNumber, () ->
+                transactionHistoryRepository.findPage(accountNumber, from != null ? from : Instant.EPOCH, position.occurredAt(), position.id(), Limit.of(size)));
+        String nextCursor = null;
+        if (records.size() == size) {
+            TransactionHistoryEntity last = records.get(records.size() - 1);
+            nextCursor = new HistoryCursor(last.getOccurredAt(), last.getId()).encode();
+        }
+        return new TransactionHistoryPageResponse(accountNumber,
+                records.stream().map(transactionHistoryMapper::toResponse).toList(), nextCursor);
+    }
+}
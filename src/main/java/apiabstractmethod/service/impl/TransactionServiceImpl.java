@@ -1,66 +1,403 @@
 package apiabstractmethod.service.impl;
 
+import apiabstractmethod.exception.AccountNotFoundException;
+import apiabstractmethod.exception.UnsupportedTransactionTypeException;
+import apiabstractmethod.metrics.TransactionMetrics;
+import apiabstractmethod.metrics.TransactionMetrics.Phase;
+import apiabstractmethod.model.TransactionType;
 import apiabstractmethod.model.entity.AccountEntity;
 import apiabstractmethod.repository.AccountRepository;
 import apiabstractmethod.request.TransactionRequest;
 import apiabstractmethod.response.TransactionResponse;
-import apiabstractmethod.service.Transaction;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEngine;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.CounterpartyTransactionFactory;
+import apiabstractmethod.service.CrossShardTransferService;
+import apiabstractmethod.service.LedgerService;
+import apiabstractmethod.service.ShardRouter;
 import apiabstractmethod.service.TransactionFactory;
+import apiabstractmethod.service.TransactionHistoryService;
+import apiabstractmethod.service.TransactionPipeline;
 import apiabstractmethod.service.TransactionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final int ACCOUNT_LOOKUP_CHUNK_SIZE = 1000;
+
     private final AccountRepository accountRepository;
-    private final Map<String, TransactionFactory> transactionFactories;
+    private final TransactionFactory[] transactionFactories;
+    private final String[] availableTransactionTypes;
+    private final Optional<BalanceEngine> balanceEngine;
+    private final Optional<LedgerService> ledgerService;
+    private final Optional<TransactionPipeline> transactionPipeline;
+    private final Optional<CrossShardTransferService> crossShardTransferService;
+    private final AccountCache accountCache;
+    private final ShardRouter shardRouter;
+    private final BalanceEventBus balanceEventBus;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransactionMetrics transactionMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final Counter retries;
+    private final Counter retriesExhausted;
 
-    public TransactionServiceImpl(AccountRepository accountRepository, List<TransactionFactory> factories) {
+    public TransactionServiceImpl(AccountRepository accountRepository, AccountCache accountCache, ShardRouter shardRouter,
+                                  List<TransactionFactory> factories,
+                                  Optional<BalanceEngine> balanceEngine, Optional<LedgerService> ledgerService,
+                                  Optional<TransactionPipeline> transactionPipeline,
+                                  Optional<CrossShardTransferService> crossShardTransferService, BalanceEventBus balanceEventBus,
+                                  TransactionHistoryService transactionHistoryService,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry, TransactionMetrics transactionMetrics,
+                                  @Value("${bank.transactions.retry.max-attempts:8}") int maxAttempts,
+                                  @Value("${bank.transactions.retry.backoff-ms:5}") long backoffMs) {
         this.accountRepository = accountRepository;
-        this.transactionFactories = factories.stream()
-                .collect(Collectors.toMap(
-                        TransactionFactory::getTransactionType,
-                        Function.identity()
-                ));
+        this.accountCache = accountCache;
+        this.shardRouter = shardRouter;
+        this.transactionFactories = TransactionFactory.byTransactionType(factories);
+        this.availableTransactionTypes = factories.stream()
+                .map(factory -> factory.getTransactionType().name())
+                .toArray(String[]::new);
+        this.balanceEngine = balanceEngine;
+        this.ledgerService = ledgerService;
+        this.transactionPipeline = transactionPipeline;
+        this.crossShardTransferService = crossShardTransferService;
+        this.balanceEventBus = balanceEventBus;
+        this.transactionHistoryService = transactionHistoryService;
+        this.transactionMetrics = transactionMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.retries = meterRegistry.counter("bank.transactions.optimistic.retries");
+        this.retriesExhausted = meterRegistry.counter("bank.transactions.optimistic.retries.exhausted");
     }
 
     @Override
-    @Transactional
     public TransactionResponse processTransaction(TransactionRequest request) {
+        long start = System.nanoTime();
+        try {
+            TransactionFactory factory = resolveFactory(request);
+
+            AccountEntity updatedAccount = apply(factory, request);
+
+            transactionMetrics.record(factory.getTransactionType(), Phase.TOTAL, start);
+            transactionMetrics.success(factory.getTransactionType());
+            return successResponse(request, updatedAccount);
+        } catch (RuntimeException e) {
+            transactionMetrics.failure(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TransactionResponse> processBatch(List<TransactionRequest> requests) {
+        if (balanceEngine.isPresent() || ledgerService.isPresent() || shardRouter.shardCount() > 1) {
+            return requests.stream()
+                    .map(request -> {
+                        try {
+                            return processTransaction(request);
+                        } catch (IllegalArgumentException e) {
+                            return failedResponse(request, e.getMessage());
+                        }
+                    })
+                    .toList();
+        }
+        Map<String, AccountEntity> accounts = new HashMap<>();
+        try {
+            List<TransactionResponse> responses = withOptimisticRetry(() ->
+                    transactionTemplate.execute(status -> executeBatch(requests, accounts)));
+            accounts.values().forEach(accountCache::put);
+            return responses;
+        } catch (RuntimeException e) {
+            accounts.keySet().forEach(accountCache::evict);
+            throw e;
+        }
+    }
+
+    /**
+     * Re-runs a unit of work that lost an optimistic version check, up to the configured number
+     * of attempts, sleeping a random (full jitter) exponential backoff between attempts so that
+     * contending writers spread out instead of colliding again.
+     */
+    private <T> T withOptimisticRetry(Supplier<T> unitOfWork) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return unitOfWork.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    retriesExhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private void backOff(int attempt, OptimisticLockingFailureException cause) {
+        long ceiling = backoffMs << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    /**
+     * Applies a transaction through the configured write path: the in-memory balance engine,
+     * the append-only ledger, the partitioned single-writer pipeline, or a read-modify-write of
+     * the account row, in that order of precedence.
+     */
+    private AccountEntity apply(TransactionFactory factory, TransactionRequest request) {
+        if (factory instanceof CounterpartyTransactionFactory counterpartyFactory) {
+            return applyTransfer(counterpartyFactory, request);
+        }
+        if (balanceEngine.isPresent()) {
+            return balanceEngine.get().apply(factory, request.getAccountNumber(), request.getAmount());
+        }
+        if (ledgerService.isPresent()) {
+            return withOptimisticRetry(() -> transactionTemplate.execute(status ->
+                    ledgerService.get().append(factory, request.getAccountNumber(), request.getAmount())));
+        }
+        if (transactionPipeline.isPresent()) {
+            try {
+                return transactionPipeline.get().submit(factory, request.getAccountNumber(), request.getAmount()).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            AccountEntity updatedAccount = shardRouter.onShardOf(request.getAccountNumber(), () -> withOptimisticRetry(() ->
+                    transactionTemplate.execute(status -> executeAndSave(factory, request))));
+            accountCache.put(updatedAccount);
+            return updatedAccount;
+        } catch (RuntimeException e) {
+            accountCache.evict(request.getAccountNumber());
+            throw e;
+        }
+    }
 
-        AccountEntity account = accountRepository.findByAccountNumber(request.getAccountNumber())
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + request.getAccountNumber()));
+    private AccountEntity applyTransfer(CounterpartyTransactionFactory factory, TransactionRequest request) {
+        String source = request.getAccountNumber();
+        String target = requireTarget(factory, request);
 
-        TransactionFactory factory = transactionFactories.get(request.getTransactionType().toUpperCase());
+        if (balanceEngine.isPresent()) {
+            return balanceEngine.get().applyTransfer(factory, source, target, request.getAmount());
+        }
+        if (ledgerService.isPresent()) {
+            return withOptimisticRetry(() -> transactionTemplate.execute(status ->
+                    ledgerService.get().appendTransfer(factory, source, target, request.getAmount())));
+        }
+        int shard = shardRouter.shardOf(source);
+        if (shard != shardRouter.shardOf(target)) {
+            return crossShardTransferService.orElseThrow().transfer(factory, source, target, request.getAmount());
+        }
+        try {
+            AccountEntity[] updatedAccounts = shardRouter.onShard(shard, () -> withOptimisticRetry(() ->
+                    transactionTemplate.execute(status -> executeTransferAndSave(factory, request))));
+            for (AccountEntity updatedAccount : updatedAccounts) {
+                accountCache.put(updatedAccount);
+            }
+            return updatedAccounts[0];
+        } catch (RuntimeException e) {
+            accountCache.evict(source);
+            accountCache.evict(target);
+            throw e;
+        }
+    }
+
+    private String requireTarget(CounterpartyTransactionFactory factory, TransactionRequest request) {
+        String target = request.getTargetAccountNumber();
+        if (target == null || target.isBlank()) {
+            throw new IllegalArgumentException("Target account number is required for " + factory.getTransactionType());
+        }
+        if (target.equals(request.getAccountNumber())) {
+            throw new IllegalArgumentException("Source and target accounts must be different");
+        }
+        return target;
+    }
+
+    private TransactionFactory resolveFactory(TransactionRequest request) {
+        TransactionType transactionType = request.getTransactionType();
+        TransactionFactory factory = transactionType != null ? transactionFactories[transactionType.ordinal()] : null;
         if (factory == null) {
-            throw new IllegalArgumentException("Unsupported transaction type: " + request.getTransactionType());
+            throw new UnsupportedTransactionTypeException(request.getTransactionTypeName());
         }
+        return factory;
+    }
+
+    /**
+     * Executes the transaction against the cached account state and writes the new balance with a
+     * single conditional update on the version the state was read at. A stale cache entry matches
+     * no row, is evicted, and the attempt is retried against fresh state.
+     */
+    private AccountEntity executeAndSave(TransactionFactory factory, TransactionRequest request) {
+        TransactionType type = factory.getTransactionType();
+        long start = System.nanoTime();
+        AccountEntity account = accountCache.get(request.getAccountNumber())
+                .orElseThrow(() -> new AccountNotFoundException(request.getAccountNumber()));
+        start = transactionMetrics.record(type, Phase.LOOKUP, start);
 
-        Transaction transaction = factory.createTransaction(request.getAmount(), account);
-        AccountEntity updatedAccount = transaction.execute();
+        AccountEntity updatedAccount = factory.execute(request.getAmount(), account);
+        start = transactionMetrics.record(type, Phase.EXECUTE, start);
 
-        accountRepository.save(updatedAccount);
+        updateIfVersion(updatedAccount);
+        transactionHistoryService.record(updatedAccount, type.name(), request.getAmount());
+        transactionMetrics.record(type, Phase.PERSIST, start);
+        balanceEventBus.publish(updatedAccount);
+        return updatedAccount;
+    }
+
+    /**
+     * Executes a transfer against the cached state of both accounts and writes both balances with
+     * conditional updates issued in account id order. Every transfer takes its row locks in that
+     * same order, so two opposite transfers between the same accounts cannot deadlock.
+     *
+     * @return The updated source and target accounts, in that order
+     */
+    private AccountEntity[] executeTransferAndSave(CounterpartyTransactionFactory factory, TransactionRequest request) {
+        TransactionType type = factory.getTransactionType();
+        long start = System.nanoTime();
+        AccountEntity source = accountCache.get(request.getAccountNumber())
+                .orElseThrow(() -> new AccountNotFoundException(request.getAccountNumber()));
+        AccountEntity target = accountCache.get(request.getTargetAccountNumber())
+                .orElseThrow(() -> new AccountNotFoundException(request.getTargetAccountNumber()));
+        start = transactionMetrics.record(type, Phase.LOOKUP, start);
 
+        factory.execute(request.getAmount(), source, target);
+        start = transactionMetrics.record(type, Phase.EXECUTE, start);
+
+        boolean sourceFirst = source.getId() < target.getId();
+        updateIfVersion(sourceFirst ? source : target);
+        updateIfVersion(sourceFirst ? target : source);
+        transactionHistoryService.record(source, type.name() + "_OUT", request.getAmount());
+        transactionHistoryService.record(target, type.name() + "_IN", request.getAmount());
+        transactionMetrics.record(type, Phase.PERSIST, start);
+        balanceEventBus.publish(source);
+        balanceEventBus.publish(target);
+        return new AccountEntity[]{source, target};
+    }
+
+    private void updateIfVersion(AccountEntity account) {
+        int updated = accountRepository.updateBalanceIfVersion(account.getId(), account.getBalance(), account.getVersion());
+        if (updated == 0) {
+            accountCache.evict(account.getAccountNumber());
+            throw new ObjectOptimisticLockingFailureException(AccountEntity.class, account.getId());
+        }
+        account.setVersion(account.getVersion() + 1);
+    }
+
+    /**
+     * Runs every request against accounts loaded up front with IN queries, so the whole batch
+     * costs one lookup per chunk of accounts and one batched flush at commit. A request that
+     * fails is reported as FAILED without aborting the rest of the batch. Hibernate orders the
+     * flushed updates by id, which keeps transfers inside a batch in the canonical lock order.
+     */
+    private List<TransactionResponse> executeBatch(List<TransactionRequest> requests, Map<String, AccountEntity> accounts) {
+        accounts.clear();
+        accounts.putAll(loadAccounts(requests));
+        List<TransactionResponse> responses = new ArrayList<>(requests.size());
+
+        for (TransactionRequest request : requests) {
+            try {
+                TransactionFactory factory = resolveFactory(request);
+                AccountEntity account = accounts.get(request.getAccountNumber());
+                if (account == null) {
+                    throw new AccountNotFoundException(request.getAccountNumber());
+                }
+                AccountEntity updatedAccount;
+                if (factory instanceof CounterpartyTransactionFactory counterpartyFactory) {
+                    String targetNumber = requireTarget(counterpartyFactory, request);
+                    AccountEntity target = accounts.get(targetNumber);
+                    if (target == null) {
+                        throw new AccountNotFoundException(targetNumber);
+                    }
+                    updatedAccount = counterpartyFactory.execute(request.getAmount(), account, target);
+                    transactionHistoryService.record(updatedAccount, factory.getTransactionType().name() + "_OUT", request.getAmount());
+                    transactionHistoryService.record(target, factory.getTransactionType().name() + "_IN", request.getAmount());
+                    balanceEventBus.publish(target);
+                } else {
+                    updatedAccount = factory.execute(request.getAmount(), account);
+                    transactionHistoryService.record(updatedAccount, factory.getTransactionType().name(), request.getAmount());
+                }
+                balanceEventBus.publish(updatedAccount);
+                responses.add(successResponse(request, updatedAccount));
+                transactionMetrics.success(factory.getTransactionType());
+            } catch (IllegalArgumentException e) {
+                transactionMetrics.failure(e);
+                responses.add(failedResponse(request, e.getMessage()));
+            }
+        }
+
+        accountRepository.saveAll(accounts.values());
+        return responses;
+    }
+
+    private Map<String, AccountEntity> loadAccounts(List<TransactionRequest> requests) {
+        List<String> accountNumbers = requests.stream()
+                .flatMap(request -> Stream.of(request.getAccountNumber(), request.getTargetAccountNumber()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<String, AccountEntity> accounts = new HashMap<>(accountNumbers.size() * 2);
+        for (int from = 0; from < accountNumbers.size(); from += ACCOUNT_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = accountNumbers.subList(from, Math.min(from + ACCOUNT_LOOKUP_CHUNK_SIZE, accountNumbers.size()));
+            accountRepository.findByAccountNumberIn(chunk)
+                    .forEach(account -> accounts.put(account.getAccountNumber(), account));
+        }
+        return accounts;
+    }
+
+    private TransactionResponse successResponse(TransactionRequest request, AccountEntity updatedAccount) {
         return new TransactionResponse(
-                updatedAccount.getAccountType(),
+                request.getTransactionTypeName(),
                 updatedAccount.getAccountNumber(),
                 request.getAmount(),
                 updatedAccount.getBalance(),
                 "SUCCESS",
-                "Transaction processed successfully") {
+                "Transaction processed successfully");
+    }
 
-        };
+    private TransactionResponse failedResponse(TransactionRequest request, String message) {
+        return new TransactionResponse(
+                request.getTransactionTypeName(),
+                request.getAccountNumber(),
+                request.getAmount(),
+                null,
+                "FAILED",
+                message);
     }
 
 
     @Override
     public String[] getAvailableTransactionTypes() {
-        return transactionFactories.keySet().toArray(new String[0]);
+        return availableTransactionTypes.clone();
     }
-}
\ No newline at end of file
+}
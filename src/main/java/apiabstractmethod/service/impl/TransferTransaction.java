@@ -0,0 +1,80 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.InsufficientFundsException;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.service.Transaction;
+import lombok.Getter;
+import java.math.BigDecimal;
+
+@Getter
+public class TransferTransaction implements Transaction {
+
+    private final BigDecimal amount;
+    private final AccountEntity account;
+    private final AccountEntity target;
+    private static final String TYPE = "TRANSFER";
+
+    public TransferTransaction(BigDecimal amount, AccountEntity account, AccountEntity target) {
+        this.amount = amount;
+        this.account = account;
+        this.target = target;
+    }
+
+    /**
+     * Debits the source account and credits the target account. Both accounts are validated
+     * before either is modified, so a rejected transfer leaves both untouched.
+     *
+     * @return The updated source account
+     */
+    @Override
+    public AccountEntity execute() {
+        return apply(amount, account, target);
+    }
+
+    /**
+     * Transfer rules applied in place to the source and target accounts.
+     *
+     * @return The updated source account
+     */
+    public static AccountEntity apply(BigDecimal amount, AccountEntity account, AccountEntity target) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+
+        if (account.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException("Insufficient funds for transfer");
+        }
+
+        account.setBalance(account.getBalance().subtract(amount));
+        target.setBalance(target.getBalance().add(amount));
+
+        return account;
+    }
+
+    /**
+     * Transfer rules for the source balance held in minor units.
+     */
+    public static long debit(long balance, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+
+        if (balance < amount) {
+            throw new InsufficientFundsException("Insufficient funds for transfer");
+        }
+
+        return balance - amount;
+    }
+
+    /**
+     * Transfer rules for the target balance held in minor units.
+     */
+    public static long credit(long balance, long amount) {
+        return Math.addExact(balance, amount);
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,47 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.service.CounterpartyTransactionFactory;
+import apiabstractmethod.service.Transaction;
+import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+
+@Service
+public class TransferTransactionFactory implements CounterpartyTransactionFactory {
+
+    @Override
+    public Transaction createTransaction(BigDecimal amount, AccountEntity account) {
+        throw new IllegalArgumentException("Target account number is required for a transfer");
+    }
+
+    @Override
+    public Transaction createTransaction(BigDecimal amount, AccountEntity account, AccountEntity counterparty) {
+        return new TransferTransaction(amount, account, counterparty);
+    }
+
+    @Override
+    public AccountEntity execute(BigDecimal amount, AccountEntity account) {
+        throw new IllegalArgumentException("Target account number is required for a transfer");
+    }
+
+    @Override
+    public AccountEntity execute(BigDecimal amount, AccountEntity account, AccountEntity counterparty) {
+        return TransferTransaction.apply(amount, account, counterparty);
+    }
+
+    @Override
+    public long apply(long balance, long amount) {
+        return TransferTransaction.debit(balance, amount);
+    }
+
+    @Override
+    public long applyToCounterparty(long balance, long amount) {
+        return TransferTransaction.credit(balance, amount);
+    }
+
+    @Override
+    public TransactionType getTransactionType() {
+        return TransactionType.TRANSFER;
+    }
+}
@@ -1,5 +1,6 @@
 package apiabstractmethod.service.impl;
 
+import apiabstractmethod.exception.InsufficientFundsException;
 import apiabstractmethod.model.entity.AccountEntity;
 import apiabstractmethod.service.Transaction;
 import lombok.Getter;
@@ -19,20 +20,42 @@ public class WithdrawalTransaction implements Transaction {
     
     @Override
     public AccountEntity execute() {
+        return apply(amount, account);
+    }
+
+    /**
+     * Withdrawal rules applied in place to an account.
+     */
+    public static AccountEntity apply(BigDecimal amount, AccountEntity account) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
 
         if (account.getBalance().compareTo(amount) < 0) {
-            throw new IllegalArgumentException("Insufficient funds for withdrawal");
+            throw new InsufficientFundsException("Insufficient funds for withdrawal");
         }
 
         BigDecimal newBalance = account.getBalance().subtract(amount);
         account.setBalance(newBalance);
-        
+
         return account;
     }
     
+    /**
+     * Withdrawal rules on balances held in minor units.
+     */
+    public static long apply(long balance, long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+
+        if (balance < amount) {
+            throw new InsufficientFundsException("Insufficient funds for withdrawal");
+        }
+
+        return balance - amount;
+    }
+
     @Override
     public String getType() {
         return TYPE;
@@ -1,5 +1,6 @@
 package apiabstractmethod.service.impl;
 
+import apiabstractmethod.model.TransactionType;
 import apiabstractmethod.model.entity.AccountEntity;
 import apiabstractmethod.service.Transaction;
 import apiabstractmethod.service.TransactionFactory;
@@ -13,9 +14,19 @@ public class WithdrawalTransactionFactory implements TransactionFactory {
     public Transaction createTransaction(BigDecimal amount, AccountEntity account) {
         return new WithdrawalTransaction(amount, account);
     }
+
+    @Override
+    public AccountEntity execute(BigDecimal amount, AccountEntity account) {
+        return WithdrawalTransaction.apply(amount, account);
+    }
+
+    @Override
+    public long apply(long balance, long amount) {
+        return WithdrawalTransaction.apply(balance, amount);
+    }
     
     @Override
-    public String getTransactionType() {
-        return "WITHDRAWAL";
+    public TransactionType getTransactionType() {
+        return TransactionType.WITHDRAWAL;
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+-- Schema used when Hibernate does not manage it (spring.jpa.hibernate.ddl-auto=none, as in the prod profile).
+-- Keep in step with the entities in apiabstractmethod.model.entity; ProdProfileTests validates the two against each other.
+
+create sequence if not exists accounts_seq start with 1 increment by 100;
+create sequence if not exists transaction_history_seq start with 1 increment by 100;
+
+create table if not exists accounts (
+    id bigint not null,
+    account_number varchar(255) not null,
+    account_type varchar(255) not null,
+    balance numeric(38,2) not null,
+    ledger_sequence bigint not null,
+    owner_name varchar(255) not null,
+    version bigint,
+    primary key (id),
+    constraint uk_accounts_account_number unique (account_number)
+);
+
+create table if not exists ledger_entries (
+    id bigint generated by default as identity,
+    account_number varchar(255) not null,
+    amount numeric(38,2) not null,
+    balance_after numeric(38,2) not null,
+    created_at timestamp(6) with time zone not null,
+    sequence bigint not null,
+    transaction_type varchar(255) not null,
+    primary key (id),
+    constraint uk_ledger_account_sequence unique (account_number, sequence)
+);
+
+create table if not exists transaction_history (
+    id bigint not null,
+    account_number varchar(255) not null,
+    amount numeric(38,2) not null,
+    balance_after numeric(38,2) not null,
+    occurred_at timestamp(6) with time zone not null,
+    transaction_type varchar(255) not null,
+    primary key (id)
+);
+
+create index if not exists idx_transaction_history_account_time on transaction_history (account_number, occurred_at, id);
+
+create table if not exists accrual_runs (
+    period varchar(255) not null,
+    chunk_size integer not null,
+    chunks bigint not null,
+    completed_at timestamp(6) with time zone,
+    first_account_id bigint not null,
+    last_account_id bigint not null,
+    started_at timestamp(6) with time zone not null,
+    primary key (period)
+);
+
+create table if not exists accrual_chunks (
+    id bigint generated by default as identity,
+    accounts bigint not null,
+    chunk_index bigint not null,
+    completed_at timestamp(6) with time zone not null,
+    fees numeric(38,2) not null,
+    interest numeric(38,2) not null,
+    period varchar(255) not null,
+    primary key (id),
+    constraint uk_accrual_chunks_period_chunk unique (period, chunk_index)
+);
+
+create table if not exists transfer_intents (
+    id varchar(255) not null,
+    amount numeric(38,2) not null,
+    created_at timestamp(6) with time zone not null,
+    source_account_number varchar(255) not null,
+    status varchar(255) not null,
+    target_account_number varchar(255) not null,
+    transaction_type varchar(255) not null,
+    version bigint,
+    primary key (id)
+);
+
+create index if not exists idx_transfer_intents_status_created on transfer_intents (status, created_at);
+
+create table if not exists transfer_receipts (
+    id bigint generated by default as identity,
+    created_at timestamp(6) with time zone not null,
+    intent_id varchar(255) not null,
+    outcome varchar(255) not null,
+    primary key (id),
+    constraint uk_transfer_receipts_intent unique (intent_id)
+);
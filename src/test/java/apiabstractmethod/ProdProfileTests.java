@@ -0,0 +1,28 @@
+package apiabstractmethod;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the prod profile on its own database, so the schema comes from db/schema.sql alone,
+ * and has Hibernate validate it against the entity mappings.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prodprofile",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@ActiveProfiles("prod")
+class ProdProfileTests {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void schemaScriptMatchesEntityMappings() {
+        assertThat(entityManagerFactory.isOpen()).isTrue();
+    }
+}
@@ -0,0 +1,67 @@
+package apiabstractmethod;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the server with virtual threads enabled and checks that Tomcat hands requests to them
+ * and that concurrent requests on them all apply.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtualthreads",
+        "spring.threads.virtual.enabled=true"})
+class VirtualThreadsTests {
+
+    private static final int REQUESTS = 40;
+
+    @Autowired
+    private ServletWebServerApplicationContext applicationContext;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void tomcatRunsRequestsOnVirtualThreads() {
+        Connector connector = ((TomcatWebServer) applicationContext.getWebServer()).getTomcat().getConnector();
+
+        assertThat(connector.getProtocolHandler().getExecutor()).isInstanceOf(VirtualThreadExecutor.class);
+    }
+
+    @Test
+    void concurrentDepositsOnVirtualThreadsAllApply() {
+        accountRepository.save(new AccountEntity(null, "VT1", "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L));
+        Map<String, Object> deposit = Map.of("transactionType", "deposit", "accountNumber", "VT1", "amount", 1.00);
+
+        List<ResponseEntity<Map>> responses = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> restTemplate.postForEntity("/api/transactions", deposit, Map.class)))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        assertThat(responses).allMatch(response -> response.getStatusCode() == HttpStatus.OK);
+        assertThat(accountRepository.findByAccountNumber("VT1").orElseThrow().getBalance())
+                .isEqualByComparingTo(new BigDecimal("140.00"));
+    }
+}
@@ -0,0 +1,66 @@
+package apiabstractmethod.config;
+
+import apiabstractmethod.response.AccountResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CborConfigTests {
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private final CborConfig.ArrayStreamingCborEncoder encoder = new CborConfig.ArrayStreamingCborEncoder(cborMapper);
+    private final AccountResponse first = new AccountResponse(1L, "ACC1", "savings", new BigDecimal("100.25"), "John Doe");
+    private final AccountResponse second = new AccountResponse(2L, "ACC2", "checking", new BigDecimal("0.01"), "Jane Doe");
+
+    @Test
+    void encodesAFluxAsAnIndefiniteLengthArrayOfItsElements() throws Exception {
+        byte[] encoded = encode(Flux.just(first, second));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(0x9f);
+        expected.write(cborMapper.writeValueAsBytes(first));
+        expected.write(cborMapper.writeValueAsBytes(second));
+        expected.write(0xff);
+        assertArrayEquals(expected.toByteArray(), encoded);
+        assertEquals(Arrays.asList(first, second), Arrays.asList(cborMapper.readValue(encoded, AccountResponse[].class)));
+    }
+
+    @Test
+    void encodesAnEmptyFluxAsAnEmptyArray() throws Exception {
+        byte[] encoded = encode(Flux.empty());
+
+        assertArrayEquals(new byte[]{(byte) 0x9f, (byte) 0xff}, encoded);
+        assertEquals(0, cborMapper.readValue(encoded, AccountResponse[].class).length);
+    }
+
+    @Test
+    void encodesAMonoAsItsValueAlone() throws Exception {
+        byte[] encoded = encode(Mono.just(first));
+
+        assertArrayEquals(cborMapper.writeValueAsBytes(first), encoded);
+        assertEquals(first, cborMapper.readValue(encoded, AccountResponse.class));
+    }
+
+    private byte[] encode(Publisher<AccountResponse> input) {
+        DataBuffer joined = DataBufferUtils.join(encoder.encode(input, DefaultDataBufferFactory.sharedInstance,
+                ResolvableType.forClass(AccountResponse.class), MediaType.APPLICATION_CBOR, null)).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,66 @@
+package apiabstractmethod.config;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.service.AccountQueryService;
+import apiabstractmethod.service.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "bank.sharding.enabled=true",
+        "bank.sharding.urls=jdbc:h2:mem:crossshard0,jdbc:h2:mem:crossshard1",
+        "bank.sharding.transfer-recovery-interval-ms=3600000"})
+class ShardingConfigTests {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountQueryService accountQueryService;
+
+    @Test
+    void routesAccountNumbersDeterministicallyAcrossBothShards() {
+        List<String> accountNumbers = IntStream.range(0, 200).mapToObj(i -> "ROUTE" + i).toList();
+
+        Map<Integer, Long> perShard = accountNumbers.stream()
+                .collect(Collectors.groupingBy(shardRouter::shardOf, Collectors.counting()));
+
+        assertEquals(2, perShard.size());
+        assertTrue(perShard.values().stream().allMatch(count -> count > 50));
+        accountNumbers.forEach(accountNumber ->
+                assertEquals(shardRouter.shardOf(accountNumber), shardRouter.shardOf(accountNumber)));
+    }
+
+    @Test
+    void accountIdsArePositiveAndUniqueAcrossShardsOverSeveralIdBlocks() {
+        List<AccountEntity> saved = IntStream.range(0, 250)
+                .mapToObj(i -> "UNIQUE" + i)
+                .map(accountNumber -> shardRouter.onShardOf(accountNumber, () -> accountRepository.save(
+                        new AccountEntity(null, accountNumber, "SAVINGS", new BigDecimal("10.00"), "Owner", null, 0L))))
+                .toList();
+        List<Long> savedIds = saved.stream().map(AccountEntity::getId).toList();
+
+        List<Long> listed = new ArrayList<>();
+        accountQueryService.forEachAccount(account -> listed.add(account.getId()));
+
+        assertTrue(savedIds.stream().allMatch(id -> id > 0));
+        assertEquals(savedIds.size(), savedIds.stream().distinct().count());
+        assertTrue(listed.containsAll(savedIds));
+        assertEquals(listed.stream().sorted().distinct().toList(), listed);
+    }
+}
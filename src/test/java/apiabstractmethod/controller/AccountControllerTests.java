@@ -0,0 +1,216 @@
+package apiabstractmethod.controller;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.TransactionHistoryEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.repository.TransactionHistoryRepository;
+import apiabstractmethod.response.AccountResponse;
+import apiabstractmethod.response.TransactionHistoryPageResponse;
+import apiabstractmethod.response.TransactionRecordResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:accountcontroller")
+@AutoConfigureMockMvc
+class AccountControllerTests {
+
+    private static final Instant T0 = Instant.parse("2024-05-01T12:00:00.000001Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionHistoryRepository transactionHistoryRepository;
+
+    @Test
+    void aStatementListsTransactionsNewestFirstWithTheBalanceEachLeft() throws Exception {
+        accountRepository.save(new AccountEntity(null, "STMT1", "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L));
+        transact("deposit", "STMT1", "50.00");
+        transact("withdrawal", "STMT1", "30.00");
+        transact("deposit", "STMT1", "5.25");
+
+        TransactionHistoryPageResponse page = statement(get("/api/accounts/STMT1/transactions"));
+
+        List<TransactionRecordResponse> records = page.getTransactions();
+        assertEquals(3, records.size());
+        assertRecord(records.get(0), "DEPOSIT", "5.25", "125.25");
+        assertRecord(records.get(1), "WITHDRAWAL", "30.00", "120.00");
+        assertRecord(records.get(2), "DEPOSIT", "50.00", "150.00");
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void followingTheCursorVisitsEveryRecordOnceEvenWithinOneMicrosecond() throws Exception {
+        AccountEntity account = accountRepository.save(
+                new AccountEntity(null, "STMT2", "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L));
+        List<TransactionHistoryEntity> saved = transactionHistoryRepository.saveAll(List.of(
+                TransactionHistoryEntity.of(account, "DEPOSIT", BigDecimal.ONE, T0),
+                TransactionHistoryEntity.of(account, "DEPOSIT", BigDecimal.ONE, T0.plusNanos(1000)),
+                TransactionHistoryEntity.of(account, "DEPOSIT", BigDecimal.ONE, T0.plusNanos(2000)),
+                TransactionHistoryEntity.of(account, "DEPOSIT", BigDecimal.ONE, T0.plusNanos(2000)),
+                TransactionHistoryEntity.of(account, "DEPOSIT", BigDecimal.ONE, T0.plusNanos(2000)),
+                TransactionHistoryEntity.of(account, "DEPOSIT", BigDecimal.ONE, T0.plusNanos(3000)),
+                TransactionHistoryEntity.of(account, "DEPOSIT", BigDecimal.ONE, T0.plusNanos(4000))));
+        List<Long> expected = saved.stream()
+                .sorted(Comparator.comparing(TransactionHistoryEntity::getOccurredAt)
+                        .thenComparing(TransactionHistoryEntity::getId).reversed())
+                .map(TransactionHistoryEntity::getId)
+                .toList();
+
+        List<Long> visited = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/accounts/STMT2/transactions").param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            TransactionHistoryPageResponse page = statement(request);
+            page.getTransactions().forEach(record -> visited.add(record.getId()));
+            pageSizes.add(page.getTransactions().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, visited);
+        assertEquals(List.of(2, 2, 2, 1), pageSizes);
+    }
+
+    @Test
+    void aStatementRangeIncludesItsStartAndExcludesItsEnd() throws Exception {
+        AccountEntity account = accountRepository.save(
+                new AccountEntity(null, "STMT3", "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L));
+        transactionHistoryRepository.saveAll(List.of(
+                TransactionHistoryEntity.of(account, "DEPOSIT", new BigDecimal("1.00"), T0),
+                TransactionHistoryEntity.of(account, "DEPOSIT", new BigDecimal("2.00"), T0.plusSeconds(1)),
+                TransactionHistoryEntity.of(account, "DEPOSIT", new BigDecimal("3.00"), T0.plusSeconds(2)),
+                TransactionHistoryEntity.of(account, "DEPOSIT", new BigDecimal("4.00"), T0.plusSeconds(3))));
+
+        TransactionHistoryPageResponse page = statement(get("/api/accounts/STMT3/transactions")
+                .param("from", T0.plusSeconds(1).toString())
+                .param("to", T0.plusSeconds(3).toString()));
+
+        assertEquals(List.of(new BigDecimal("3.00"), new BigDecimal("2.00")),
+                page.getTransactions().stream().map(TransactionRecordResponse::getAmount).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void rejectsAMalformedCursor() throws Exception {
+        accountRepository.save(new AccountEntity(null, "STMT4", "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L));
+
+        mockMvc.perform(get("/api/accounts/STMT4/transactions").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor: not-a-cursor"));
+    }
+
+    @Test
+    void answersNotFoundForTheStatementOfAnUnknownAccount() throws Exception {
+        mockMvc.perform(get("/api/accounts/NOSUCHACCOUNT/transactions"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listsAccountsAsJsonWhenTheRequestNamesNoMediaType() throws Exception {
+        accountRepository.save(new AccountEntity(null, "LIST1", "SAVINGS", new BigDecimal("123.45"), "Owner", null, 0L));
+
+        AccountResponse[] accounts = objectMapper.readValue(listAccounts(get("/api/accounts"), MediaType.APPLICATION_JSON),
+                AccountResponse[].class);
+        AccountResponse[] anyType = objectMapper.readValue(listAccounts(get("/api/accounts").accept(MediaType.ALL),
+                MediaType.APPLICATION_JSON), AccountResponse[].class);
+
+        assertEquals(new BigDecimal("123.45"), find(accounts, "LIST1").getBalance());
+        assertEquals(new BigDecimal("123.45"), find(anyType, "LIST1").getBalance());
+    }
+
+    @Test
+    void listsAccountsAsACborArrayWithDecimalFractionAmountsWhenAskedFor() throws Exception {
+        accountRepository.save(new AccountEntity(null, "LIST2", "SAVINGS", new BigDecimal("123.45"), "Owner", null, 0L));
+
+        byte[] body = listAccounts(get("/api/accounts").accept(MediaType.APPLICATION_CBOR), MediaType.APPLICATION_CBOR);
+
+        AccountResponse account = find(objectMapper.copyWith(new CBORFactory()).readValue(body, AccountResponse[].class), "LIST2");
+        assertEquals(new BigDecimal("123.45"), account.getBalance());
+        assertEquals("Owner", account.getOwnerName());
+        // Tag 4 (decimal fraction) over [-2, 12345]
+        assertTrue(contains(body, new byte[]{(byte) 0xc4, (byte) 0x82, 0x21, 0x19, 0x30, 0x39}));
+    }
+
+    private byte[] listAccounts(MockHttpServletRequestBuilder listing, MediaType expectedType) throws Exception {
+        MvcResult started = mockMvc.perform(listing)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(expectedType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private static AccountResponse find(AccountResponse[] accounts, String accountNumber) {
+        return Arrays.stream(accounts)
+                .filter(account -> account.getAccountNumber().equals(accountNumber))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static boolean contains(byte[] bytes, byte[] sequence) {
+        for (int i = 0; i + sequence.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + sequence.length, sequence, 0, sequence.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void transact(String type, String accountNumber, String amount) throws Exception {
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactionType\": \"" + type + "\", \"accountNumber\": \"" + accountNumber
+                                + "\", \"amount\": " + amount + "}"))
+                .andExpect(status().isOk());
+    }
+
+    private TransactionHistoryPageResponse statement(MockHttpServletRequestBuilder request) throws Exception {
+        byte[] body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readValue(body, TransactionHistoryPageResponse.class);
+    }
+
+    private static void assertRecord(TransactionRecordResponse record, String type, String amount, String balanceAfter) {
+        assertEquals(type, record.getTransactionType());
+        assertEquals(new BigDecimal(amount), record.getAmount());
+        assertEquals(new BigDecimal(balanceAfter), record.getBalanceAfter());
+    }
+}
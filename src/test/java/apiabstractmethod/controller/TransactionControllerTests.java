@@ -0,0 +1,102 @@
+package apiabstractmethod.controller;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.response.TransactionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transactioncontroller")
+@AutoConfigureMockMvc
+class TransactionControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        if (accountRepository.findByAccountNumber("CTRL1").isEmpty()) {
+            accountRepository.save(new AccountEntity(null, "CTRL1", "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L));
+        }
+    }
+
+    @Test
+    void anUnsupportedTypeFailsOnlyItsItemOfABatch() throws Exception {
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"transactions": [
+                                  {"transactionType": "deposit", "accountNumber": "CTRL1", "amount": 10.00},
+                                  {"transactionType": "bogus", "accountNumber": "CTRL1", "amount": 5.00}
+                                ]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("SUCCESS"))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].transactionType").value("bogus"))
+                .andExpect(jsonPath("$[1].message").value("Unsupported transaction type: bogus"));
+    }
+
+    @Test
+    void acceptsAndAnswersACborTransaction() throws Exception {
+        ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+        BigDecimal balance = accountRepository.findByAccountNumber("CTRL1").orElseThrow().getBalance();
+
+        byte[] body = mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(Map.of(
+                                "transactionType", "deposit",
+                                "accountNumber", "CTRL1",
+                                "amount", new BigDecimal("0.10")))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        TransactionResponse response = cborMapper.readValue(body, TransactionResponse.class);
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(new BigDecimal("0.10"), response.getAmount());
+        assertEquals(balance.add(new BigDecimal("0.10")), response.getNewBalance());
+    }
+
+    @Test
+    void rejectsASingleTransactionOfAnUnsupportedType() throws Exception {
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"transactionType": "bogus", "accountNumber": "CTRL1", "amount": 5.00}"""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unsupported transaction type: bogus"));
+    }
+
+    @Test
+    void rejectsATransactionWithoutAType() throws Exception {
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"accountNumber": "CTRL1", "amount": 5.00}"""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.transactionType").value("Transaction type is required"));
+    }
+}
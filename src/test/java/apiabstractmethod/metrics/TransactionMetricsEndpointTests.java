@@ -0,0 +1,57 @@
+package apiabstractmethod.metrics;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Metrics export is switched off in tests unless asked for, so this class turns it on to check
+ * that the transaction meters reach the Prometheus scrape endpoint.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transactionmetrics")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class TransactionMetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void exposesTransactionMetersToPrometheus() throws Exception {
+        accountRepository.save(new AccountEntity(null, "PROM1", "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L));
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"transactionType": "deposit", "accountNumber": "PROM1", "amount": 10.00}"""))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"transactionType": "withdrawal", "accountNumber": "PROM1", "amount": 500.00}"""))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("bank_transactions_total{type=\"DEPOSIT\",} 1.0")))
+                .andExpect(content().string(containsString("bank_transaction_failures_total{reason=\"insufficient_funds\",} 1.0")))
+                .andExpect(content().string(containsString("bank_transaction_latency_seconds_count{phase=\"total\",type=\"DEPOSIT\",} 1")))
+                .andExpect(content().string(containsString("bank_transaction_latency_seconds_bucket{phase=\"persist\",type=\"DEPOSIT\"")));
+    }
+}
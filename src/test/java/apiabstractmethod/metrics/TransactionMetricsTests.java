@@ -0,0 +1,106 @@
+package apiabstractmethod.metrics;
+
+import apiabstractmethod.exception.AccountNotFoundException;
+import apiabstractmethod.exception.InsufficientFundsException;
+import apiabstractmethod.exception.UnsupportedTransactionTypeException;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.ShardRouter;
+import apiabstractmethod.service.TransactionFactory;
+import apiabstractmethod.service.TransactionHistoryService;
+import apiabstractmethod.service.impl.DepositTransactionFactory;
+import apiabstractmethod.service.impl.TransactionServiceImpl;
+import apiabstractmethod.service.impl.WithdrawalTransactionFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionMetricsTests {
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final AccountCache accountCache = mock(AccountCache.class);
+    private final ShardRouter shardRouter = mock(ShardRouter.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        List<TransactionFactory> factories = List.of(new DepositTransactionFactory(), new WithdrawalTransactionFactory());
+        when(shardRouter.shardCount()).thenReturn(1);
+        when(shardRouter.onShardOf(anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(accountCache.get(anyString())).thenReturn(Optional.empty());
+        when(accountCache.get("ACC1")).thenAnswer(invocation ->
+                Optional.of(new AccountEntity(1L, "ACC1", "checking", new BigDecimal("100.00"), "John Doe", 4L, 0L)));
+        when(accountRepository.updateBalanceIfVersion(any(), any(), anyLong())).thenReturn(1);
+        transactionService = new TransactionServiceImpl(accountRepository, accountCache, shardRouter, factories,
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), mock(BalanceEventBus.class),
+                mock(TransactionHistoryService.class), mock(PlatformTransactionManager.class),
+                meterRegistry, new TransactionMetrics(meterRegistry, factories), 3, 1);
+    }
+
+    @Test
+    void aProcessedTransactionRecordsEveryPhaseForItsType() {
+        transactionService.processTransaction(request(TransactionType.DEPOSIT, "ACC1", "10.00"));
+
+        for (String phase : List.of("lookup", "execute", "persist", "total")) {
+            assertEquals(1, latencyCount("DEPOSIT", phase), phase);
+            assertEquals(0, latencyCount("WITHDRAWAL", phase), phase);
+        }
+        assertEquals(1, meterRegistry.get("bank.transactions").tag("type", "DEPOSIT").counter().count());
+        assertEquals(0, meterRegistry.get("bank.transactions").tag("type", "WITHDRAWAL").counter().count());
+    }
+
+    @Test
+    void countsEachFailureUnderItsReason() {
+        transactionService.processTransaction(request(TransactionType.DEPOSIT, "ACC1", "10.00"));
+        assertThrows(InsufficientFundsException.class, () ->
+                transactionService.processTransaction(request(TransactionType.WITHDRAWAL, "ACC1", "500.00")));
+        assertThrows(UnsupportedTransactionTypeException.class, () ->
+                transactionService.processTransaction(request(TransactionType.FEE, "ACC1", "1.00")));
+        assertThrows(AccountNotFoundException.class, () ->
+                transactionService.processTransaction(request(TransactionType.DEPOSIT, "MISSING", "1.00")));
+
+        assertEquals(1, failures("insufficient_funds"));
+        assertEquals(1, failures("unknown_type"));
+        assertEquals(1, failures("account_not_found"));
+        assertEquals(0, failures("conflict"));
+        assertEquals(0, failures("invalid_request"));
+        assertEquals(0, failures("error"));
+        assertEquals(1, meterRegistry.get("bank.transactions").tag("type", "DEPOSIT").counter().count());
+        assertEquals(0, meterRegistry.get("bank.transactions").tag("type", "WITHDRAWAL").counter().count());
+        assertEquals(1, latencyCount("DEPOSIT", "total"));
+        assertEquals(0, latencyCount("WITHDRAWAL", "total"));
+    }
+
+    private long latencyCount(String type, String phase) {
+        return meterRegistry.get("bank.transaction.latency").tag("type", type).tag("phase", phase).timer().count();
+    }
+
+    private double failures(String reason) {
+        return meterRegistry.get("bank.transaction.failures").tag("reason", reason).counter().count();
+    }
+
+    private static TransactionRequest request(TransactionType type, String accountNumber, String amount) {
+        return new TransactionRequest(type, accountNumber, new BigDecimal(amount), null);
+    }
+}
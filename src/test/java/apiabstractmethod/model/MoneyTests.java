@@ -0,0 +1,61 @@
+package apiabstractmethod.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTests {
+
+    @Test
+    void convertsAnAmountToMinorUnitsAtTheCurrencyScale() {
+        assertEquals(12345L, Money.toMinorUnits(new BigDecimal("123.45"), 2));
+        assertEquals(12300L, Money.toMinorUnits(new BigDecimal("123"), 2));
+        assertEquals(123L, Money.toMinorUnits(new BigDecimal("123"), 0));
+        assertEquals(123456L, Money.toMinorUnits(new BigDecimal("123.456"), 3));
+    }
+
+    @Test
+    void acceptsTrailingZerosBeyondTheCurrencyScale() {
+        assertEquals(150L, Money.toMinorUnits(new BigDecimal("1.5000"), 2));
+    }
+
+    @Test
+    void rejectsAnAmountWithMoreFractionDigitsThanTheCurrencyAllows() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinorUnits(new BigDecimal("1.005"), 2));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinorUnits(new BigDecimal("0.5"), 0));
+    }
+
+    @Test
+    void rejectsAnAmountThatDoesNotFitInALong() {
+        BigDecimal largest = Money.toDecimal(Long.MAX_VALUE, 2);
+        BigDecimal smallest = Money.toDecimal(Long.MIN_VALUE, 2);
+
+        assertEquals(Long.MAX_VALUE, Money.toMinorUnits(largest, 2));
+        assertEquals(Long.MIN_VALUE, Money.toMinorUnits(smallest, 2));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinorUnits(largest.add(new BigDecimal("0.01")), 2));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinorUnits(smallest.subtract(new BigDecimal("0.01")), 2));
+    }
+
+    @Test
+    void convertsNegativeAmountsSymmetrically() {
+        assertEquals(-12345L, Money.toMinorUnits(new BigDecimal("-123.45"), 2));
+        assertEquals(new BigDecimal("-123.45"), Money.toDecimal(-12345L, 2));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinorUnits(new BigDecimal("-0.001"), 2));
+    }
+
+    @Test
+    void roundTripsAtTheCurrencyScale() {
+        for (String amount : new String[] {"0.00", "0.01", "-0.01", "999.99", "1000000.10"}) {
+            BigDecimal decimal = new BigDecimal(amount);
+
+            BigDecimal roundTripped = Money.toDecimal(Money.toMinorUnits(decimal, 2), 2);
+
+            assertEquals(decimal, roundTripped);
+            assertEquals(2, roundTripped.scale());
+        }
+        assertEquals(new BigDecimal("7.50"), Money.toDecimal(Money.toMinorUnits(new BigDecimal("7.5"), 2), 2));
+    }
+}
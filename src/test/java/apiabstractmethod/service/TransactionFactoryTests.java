@@ -0,0 +1,31 @@
+package apiabstractmethod.service;
+
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.service.impl.DepositTransactionFactory;
+import apiabstractmethod.service.impl.TransferTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionFactoryTests {
+
+    @Test
+    void indexesFactoriesByTheirType() {
+        TransactionFactory[] byType = TransactionFactory.byTransactionType(
+                List.of(new DepositTransactionFactory(), new TransferTransactionFactory()));
+
+        assertInstanceOf(DepositTransactionFactory.class, byType[TransactionType.DEPOSIT.ordinal()]);
+        assertInstanceOf(TransferTransactionFactory.class, byType[TransactionType.TRANSFER.ordinal()]);
+        assertNull(byType[TransactionType.WITHDRAWAL.ordinal()]);
+    }
+
+    @Test
+    void rejectsTwoFactoriesForTheSameType() {
+        assertThrows(IllegalStateException.class, () -> TransactionFactory.byTransactionType(
+                List.of(new DepositTransactionFactory(), new DepositTransactionFactory())));
+    }
+}
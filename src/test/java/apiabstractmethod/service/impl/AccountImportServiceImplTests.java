@@ -0,0 +1,116 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.response.AccountImportResponse;
+import apiabstractmethod.response.AccountImportRowError;
+import apiabstractmethod.service.AccountImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:accountimport",
+        "bank.import.batch-size=3"})
+class AccountImportServiceImplTests {
+
+    @Autowired
+    private AccountImportService accountImportService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void readsQuotedCsvFieldsAndColumnsInAnyOrder() {
+        AccountImportResponse response = accountImportService.importCsv(body("""
+                ownerName,accountNumber,initialBalance,accountType
+                "Doe, ""JJ"" John",CSV1,100.00,SAVINGS
+                Jane Roe,"CSV2",  25.50 ,"CHECKING"
+                """));
+
+        assertEquals(2, response.getImported());
+        assertEquals(0, response.getFailed());
+        AccountEntity quoted = accountRepository.findByAccountNumber("CSV1").orElseThrow();
+        assertEquals("Doe, \"JJ\" John", quoted.getOwnerName());
+        assertEquals(new BigDecimal("100.00"), quoted.getBalance());
+        assertEquals("CHECKING", accountRepository.findByAccountNumber("CSV2").orElseThrow().getAccountType());
+    }
+
+    @Test
+    void reportsEachRejectedRowWithItsLineAndImportsTheRest() {
+        accountImportService.importCsv(body("""
+                accountNumber,accountType,initialBalance,ownerName
+                DUP0,SAVINGS,10.00,Owner
+                """));
+
+        AccountImportResponse response = accountImportService.importCsv(body("""
+                accountNumber,accountType,initialBalance,ownerName
+                DUP1,SAVINGS,10.00,Owner
+                DUP1,SAVINGS,20.00,Owner
+                DUP0,SAVINGS,10.00,Owner
+                DUP2,SAVINGS,ten,Owner
+                DUP3,SAVINGS,-5.00,Owner
+                DUP4,SAVINGS,10.00
+                "DUP5,SAVINGS,10.00,Owner
+
+                DUP6,SAVINGS,10.00,Owner
+                """));
+
+        assertEquals(2, response.getImported());
+        assertEquals(6, response.getFailed());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L),
+                response.getErrors().stream().map(AccountImportRowError::getLine).toList());
+        assertEquals("Account number appears more than once in the import", response.getErrors().get(0).getMessage());
+        assertEquals("Account number already exists", response.getErrors().get(1).getMessage());
+        assertEquals("Initial balance must be positive", response.getErrors().get(3).getMessage());
+        assertEquals(new BigDecimal("10.00"), accountRepository.findByAccountNumber("DUP1").orElseThrow().getBalance());
+        assertEquals(true, accountRepository.findByAccountNumber("DUP6").isPresent());
+    }
+
+    @Test
+    void importsNdjsonAndRejectsMalformedLines() {
+        AccountImportResponse response = accountImportService.importNdjson(body("""
+                {"accountNumber":"JSON1","accountType":"SAVINGS","initialBalance":10.00,"ownerName":"Owner"}
+                {"accountNumber":"JSON2","accountType":"SAVINGS",
+                {"accountNumber":"JSON3","accountType":"SAVINGS","initialBalance":10.00,"ownerName":""}
+                """));
+
+        assertEquals(1, response.getImported());
+        assertEquals(List.of(2L, 3L), response.getErrors().stream().map(AccountImportRowError::getLine).toList());
+        assertEquals("Owner name is required", response.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void concurrentImportsOfTheSameAccountsCreateEachOnce() {
+        String csv = "accountNumber,accountType,initialBalance,ownerName\n" + IntStream.range(0, 30)
+                .mapToObj(i -> "RACE" + i + ",SAVINGS,10.00,Owner")
+                .collect(Collectors.joining("\n"));
+
+        List<AccountImportResponse> responses = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> accountImportService.importCsv(body(csv))))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        assertEquals(30, responses.stream().mapToLong(AccountImportResponse::getImported).sum());
+        assertEquals(90, responses.stream().mapToLong(AccountImportResponse::getFailed).sum());
+        assertEquals(30, accountRepository.findExistingAccountNumbers(
+                IntStream.range(0, 30).mapToObj(i -> "RACE" + i).toList()).size());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.response.AccountPageResponse;
+import apiabstractmethod.response.AccountResponse;
+import apiabstractmethod.service.AccountQueryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:accountquery")
+class AccountQueryServiceImplTests {
+
+    @Autowired
+    private AccountQueryService accountQueryService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        accountRepository.saveAll(IntStream.range(0, 25)
+                .mapToObj(i -> new AccountEntity(null, "PAGE" + i, "SAVINGS", new BigDecimal("10.00"), "Owner", null, 0L))
+                .toList());
+        ids = accountRepository.findAll().stream().map(AccountEntity::getId).sorted().toList();
+    }
+
+    @Test
+    void pagesFollowTheCursorInIdOrderUntilTheLastPage() {
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Long afterId = 0L;
+        while (afterId != null) {
+            AccountPageResponse page = accountQueryService.findPage(afterId, 10);
+            page.getAccounts().forEach(account -> seen.add(account.getId()));
+            pageSizes.add(page.getAccounts().size());
+            afterId = page.getNextAfterId();
+        }
+
+        assertEquals(ids, seen);
+        assertEquals(List.of(10, 10, 5), pageSizes);
+    }
+
+    @Test
+    void aPageEndingExactlyAtTheLastAccountIsFollowedByAnEmptyOne() {
+        AccountPageResponse page = accountQueryService.findPage(ids.get(4), 20);
+
+        assertEquals(ids.subList(5, 25), page.getAccounts().stream().map(AccountResponse::getId).toList());
+        AccountPageResponse last = accountQueryService.findPage(page.getNextAfterId(), 20);
+        assertEquals(List.of(), last.getAccounts());
+        assertNull(last.getNextAfterId());
+    }
+
+    @Test
+    void streamsEveryAccountInIdOrder() {
+        List<Long> seen = new ArrayList<>();
+
+        accountQueryService.forEachAccount(account -> seen.add(account.getId()));
+
+        assertEquals(ids, seen);
+    }
+}
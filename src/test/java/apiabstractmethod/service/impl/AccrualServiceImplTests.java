@@ -0,0 +1,96 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.AccrualChunkEntity;
+import apiabstractmethod.model.entity.AccrualRunEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.repository.AccrualChunkRepository;
+import apiabstractmethod.repository.AccrualRunRepository;
+import apiabstractmethod.response.AccrualRunResponse;
+import apiabstractmethod.service.AccrualService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:accrual",
+        "bank.accrual.enabled=true",
+        "bank.accrual.interest-rates=savings:0.01",
+        "bank.accrual.fees=checking:2.50",
+        "bank.accrual.chunk-size=7"})
+class AccrualServiceImplTests {
+
+    @Autowired
+    private AccrualService accrualService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccrualRunRepository accrualRunRepository;
+
+    @Autowired
+    private AccrualChunkRepository accrualChunkRepository;
+
+    private List<AccountEntity> accounts;
+
+    @BeforeEach
+    void setUp() {
+        accrualChunkRepository.deleteAll();
+        accrualRunRepository.deleteAll();
+        accountRepository.deleteAll();
+        List<AccountEntity> created = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            boolean savings = i % 2 == 0;
+            created.add(new AccountEntity(null, "ACR" + i, savings ? "SAVINGS" : "checking",
+                    new BigDecimal(savings ? "100.00" : "1.00"), "Owner " + i, null, 0L));
+        }
+        accounts = accountRepository.saveAll(created);
+    }
+
+    @Test
+    void accruesEveryAccountOncePerPeriod() {
+        AccrualRunResponse first = accrualService.run("2026-10");
+        AccrualRunResponse second = accrualService.run("2026-10");
+
+        assertEquals("COMPLETED", first.getStatus());
+        assertEquals(first.getChunks(), first.getChunksCompleted());
+        assertEquals(50, first.getAccounts());
+        assertEquals(0, new BigDecimal("25.00").compareTo(first.getInterest()));
+        assertEquals(0, new BigDecimal("25.00").compareTo(first.getFees()));
+        assertEquals(first, second);
+        for (AccountEntity account : accountRepository.findAll()) {
+            BigDecimal expected = new BigDecimal(account.getAccountType().equals("SAVINGS") ? "101.00" : "0.00");
+            assertEquals(0, expected.compareTo(account.getBalance()), account.getAccountNumber());
+        }
+    }
+
+    @Test
+    void resumesAnInterruptedRunWithTheChunksThatHaveNoCheckpoint() {
+        long firstAccountId = accounts.get(0).getId() - 1;
+        long lastAccountId = accounts.get(accounts.size() - 1).getId();
+        accrualRunRepository.save(new AccrualRunEntity("2026-11", firstAccountId, lastAccountId, 7,
+                (lastAccountId - firstAccountId + 6) / 7, Instant.now(), null));
+        accrualChunkRepository.save(new AccrualChunkEntity(null, "2026-11", 0, 7,
+                new BigDecimal("4.00"), new BigDecimal("3.00"), Instant.now()));
+
+        AccrualRunResponse response = accrualService.run("2026-11");
+
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(50, response.getAccounts());
+        for (AccountEntity account : accountRepository.findAll()) {
+            boolean inFirstChunk = account.getId() <= firstAccountId + 7;
+            BigDecimal initial = new BigDecimal(account.getAccountType().equals("SAVINGS") ? "100.00" : "1.00");
+            BigDecimal accrued = new BigDecimal(account.getAccountType().equals("SAVINGS") ? "101.00" : "0.00");
+            assertEquals(0, (inFirstChunk ? initial : accrued).compareTo(account.getBalance()), account.getAccountNumber());
+        }
+    }
+}
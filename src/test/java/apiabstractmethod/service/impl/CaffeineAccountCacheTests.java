@@ -0,0 +1,55 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CaffeineAccountCacheTests {
+
+    private final AccountRepository repository = mock(AccountRepository.class);
+    private final CaffeineAccountCache cache = new CaffeineAccountCache(repository, new SingleShardRouter(),
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Test
+    void olderVersionDoesNotReplaceNewerOne() {
+        cache.put(account(3L, "130.00"));
+        cache.put(account(2L, "120.00"));
+
+        AccountEntity cached = cache.get("ACC1").orElseThrow();
+        assertEquals(3L, cached.getVersion());
+        assertEquals(new BigDecimal("130.00"), cached.getBalance());
+    }
+
+    @Test
+    void newerVersionReplacesOlderOne() {
+        cache.put(account(2L, "120.00"));
+        cache.put(account(3L, "130.00"));
+
+        assertEquals(new BigDecimal("130.00"), cache.get("ACC1").orElseThrow().getBalance());
+    }
+
+    @Test
+    void evictedAccountIsReadThroughAgain() {
+        when(repository.findByAccountNumber("ACC1")).thenReturn(Optional.of(account(4L, "140.00")));
+        cache.put(account(3L, "130.00"));
+
+        cache.evict("ACC1");
+
+        assertEquals(new BigDecimal("140.00"), cache.get("ACC1").orElseThrow().getBalance());
+        verify(repository).findByAccountNumber("ACC1");
+    }
+
+    private static AccountEntity account(long version, String balance) {
+        return new AccountEntity(1L, "ACC1", "checking", new BigDecimal(balance), "John Doe", version, 0L);
+    }
+}
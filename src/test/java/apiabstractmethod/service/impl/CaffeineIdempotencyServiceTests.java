@@ -0,0 +1,147 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.IdempotencyKeyReuseException;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CaffeineIdempotencyServiceTests {
+
+    private final CaffeineIdempotencyService idempotencyService = new CaffeineIdempotencyService(
+            new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void replaysTheFirstResponseForARetryWithTheSameAmountAtAnotherScale() {
+        TransactionResponse first = execute("client", "key", "10.00");
+        TransactionResponse retry = execute("client", "key", "10");
+
+        assertSame(first, retry);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keysOfDifferentClientsDoNotCollide() {
+        TransactionResponse first = execute("client", "key", "10.00");
+        TransactionResponse other = execute("other", "key", "25.00");
+
+        assertEquals(new BigDecimal("10.00"), first.getAmount());
+        assertEquals(new BigDecimal("25.00"), other.getAmount());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        execute("client", "key", "10.00");
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> execute("client", "key", "11.00"));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void forgetsAFailedExecutionSoItCanBeRetried() {
+        Supplier<TransactionResponse> failing = () -> {
+            throw new IllegalArgumentException("Insufficient funds");
+        };
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute("client", "key", deposit("10.00"), failing));
+
+        execute("client", "key", "10.00");
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void forgetsAnExecutionThatFailedWithAnError() {
+        Supplier<TransactionResponse> failing = () -> {
+            throw new StackOverflowError("Simulated");
+        };
+        assertThrows(StackOverflowError.class,
+                () -> idempotencyService.execute("client", "key", deposit("10.00"), failing));
+
+        execute("client", "key", "10.00");
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void anExecutionInFlightIsNotEvictedWhenTheStoreIsFull() throws Exception {
+        CaffeineIdempotencyService small = new CaffeineIdempotencyService(new SimpleMeterRegistry(), 1, Duration.ofHours(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<TransactionResponse> first = CompletableFuture.supplyAsync(() ->
+                small.execute("client", "key", deposit("10.00"), () -> {
+                    started.countDown();
+                    await(release);
+                    return process(deposit("10.00"));
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            TransactionRequest other = deposit("1.00");
+            small.execute("client", "other" + i, other, () -> process(other));
+        }
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> small.execute("client", "key", deposit("11.00"), () -> process(deposit("11.00"))));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(11, executions.get());
+    }
+
+    @Test
+    void aDuplicateArrivingInFlightJoinsTheFirstExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<TransactionResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("client", "key", deposit("10.00"), () -> {
+                    started.countDown();
+                    await(release);
+                    return process(deposit("10.00"));
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<TransactionResponse> duplicate = CompletableFuture.supplyAsync(() ->
+                execute("client", "key", "10.00"));
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    private TransactionResponse execute(String clientId, String idempotencyKey, String amount) {
+        TransactionRequest request = deposit(amount);
+        return idempotencyService.execute(clientId, idempotencyKey, request, () -> process(request));
+    }
+
+    private TransactionResponse process(TransactionRequest request) {
+        executions.incrementAndGet();
+        return new TransactionResponse(request.getTransactionType().name(), request.getAccountNumber(),
+                request.getAmount(), request.getAmount(), "SUCCESS", "Transaction processed successfully");
+    }
+
+    private static TransactionRequest deposit(String amount) {
+        return new TransactionRequest(TransactionType.DEPOSIT, "ACC1", new BigDecimal(amount), null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.TransferIntentEntity;
+import apiabstractmethod.model.entity.TransferIntentEntity.Status;
+import apiabstractmethod.model.entity.TransferReceiptEntity;
+import apiabstractmethod.model.entity.TransferReceiptEntity.Outcome;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.repository.TransferIntentRepository;
+import apiabstractmethod.repository.TransferReceiptRepository;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.service.CrossShardTransferService;
+import apiabstractmethod.service.ShardRouter;
+import apiabstractmethod.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "bank.sharding.enabled=true",
+        "bank.sharding.urls=jdbc:h2:mem:crossshard0,jdbc:h2:mem:crossshard1",
+        "bank.sharding.transfer-recovery-interval-ms=3600000"})
+class DurableCrossShardTransferServiceTests {
+
+    private static final BigDecimal NEAR_MAXIMUM_BALANCE = new BigDecimal("92233720368547758.00");
+    private static final AtomicInteger ACCOUNTS = new AtomicInteger();
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CrossShardTransferService crossShardTransferService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferIntentRepository transferIntentRepository;
+
+    @Autowired
+    private TransferReceiptRepository transferReceiptRepository;
+
+    @Test
+    void movesMoneyBetweenShardsAndCompletesTheIntent() {
+        List<String> accounts = accountsOnTwoShards("100.00", "100.00");
+
+        transactionService.processTransaction(transfer(accounts.get(0), accounts.get(1), "10.00"));
+
+        assertEquals(new BigDecimal("90.00"), balanceOf(accounts.get(0)));
+        assertEquals(new BigDecimal("110.00"), balanceOf(accounts.get(1)));
+        assertEquals(List.of(Status.COMPLETED), intentsFrom(accounts.get(0)).stream().map(TransferIntentEntity::getStatus).toList());
+    }
+
+    @Test
+    void aFailedCreditIsCancelledAndCreditedBackSoNoMoneyIsLost() {
+        List<String> accounts = accountsOnTwoShards("100.00", NEAR_MAXIMUM_BALANCE.toPlainString());
+        BigDecimal total = balanceOf(accounts.get(0)).add(balanceOf(accounts.get(1)));
+
+        assertThrows(RuntimeException.class,
+                () -> transactionService.processTransaction(transfer(accounts.get(0), accounts.get(1), "1.00")));
+
+        assertEquals(new BigDecimal("100.00"), balanceOf(accounts.get(0)));
+        assertEquals(NEAR_MAXIMUM_BALANCE, balanceOf(accounts.get(1)));
+        assertEquals(total, balanceOf(accounts.get(0)).add(balanceOf(accounts.get(1))));
+        TransferIntentEntity intent = intentsFrom(accounts.get(0)).get(0);
+        assertEquals(Status.REVERSED, intent.getStatus());
+        assertEquals(Outcome.CANCELLED, receiptOf(intent, accounts.get(1)).getOutcome());
+    }
+
+    @Test
+    void theSweepReversesATransferInterruptedBeforeItsCreditAndCompletesOneInterruptedAfterIt() {
+        List<String> interrupted = accountsOnTwoShards("90.00", "100.00");
+        List<String> credited = accountsOnTwoShards("90.00", "110.00");
+        TransferIntentEntity beforeCredit = pendingIntent(interrupted);
+        TransferIntentEntity afterCredit = pendingIntent(credited);
+        shardRouter.onShardOf(credited.get(1), () -> transferReceiptRepository.save(
+                new TransferReceiptEntity(null, afterCredit.getId(), Outcome.CREDITED, Instant.now())));
+
+        assertEquals(2, crossShardTransferService.recover());
+
+        assertEquals(new BigDecimal("100.00"), balanceOf(interrupted.get(0)));
+        assertEquals(new BigDecimal("100.00"), balanceOf(interrupted.get(1)));
+        assertEquals(Status.REVERSED, intentsFrom(interrupted.get(0)).get(0).getStatus());
+        assertEquals(new BigDecimal("90.00"), balanceOf(credited.get(0)));
+        assertEquals(new BigDecimal("110.00"), balanceOf(credited.get(1)));
+        assertEquals(Status.COMPLETED, intentsFrom(credited.get(0)).get(0).getStatus());
+        assertEquals(0, crossShardTransferService.recover());
+    }
+
+    /**
+     * Stores the intent of a 10.00 transfer whose debit committed an hour ago, as a crash right
+     * after the first step would leave it.
+     */
+    private TransferIntentEntity pendingIntent(List<String> accounts) {
+        TransferIntentEntity intent = new TransferIntentEntity(UUID.randomUUID().toString(), accounts.get(0),
+                accounts.get(1), TransactionType.TRANSFER.name(), new BigDecimal("10.00"), Status.PENDING,
+                Instant.now().minus(Duration.ofHours(1)), null);
+        return shardRouter.onShardOf(accounts.get(0), () -> transferIntentRepository.save(intent));
+    }
+
+    private List<String> accountsOnTwoShards(String sourceBalance, String targetBalance) {
+        String source = "XS" + ACCOUNTS.incrementAndGet();
+        String target = IntStream.iterate(ACCOUNTS.incrementAndGet(), i -> ACCOUNTS.incrementAndGet())
+                .mapToObj(i -> "XS" + i)
+                .filter(accountNumber -> shardRouter.shardOf(accountNumber) != shardRouter.shardOf(source))
+                .findFirst()
+                .orElseThrow();
+        save(source, sourceBalance);
+        save(target, targetBalance);
+        return List.of(source, target);
+    }
+
+    private void save(String accountNumber, String balance) {
+        shardRouter.onShardOf(accountNumber, () -> accountRepository.save(
+                new AccountEntity(null, accountNumber, "SAVINGS", new BigDecimal(balance), "Owner", null, 0L)));
+    }
+
+    private BigDecimal balanceOf(String accountNumber) {
+        return shardRouter.onShardOf(accountNumber, () -> accountRepository.findByAccountNumber(accountNumber))
+                .orElseThrow()
+                .getBalance();
+    }
+
+    private List<TransferIntentEntity> intentsFrom(String accountNumber) {
+        return shardRouter.onShardOf(accountNumber, () -> transferIntentRepository.findAll()).stream()
+                .filter(intent -> intent.getSourceAccountNumber().equals(accountNumber))
+                .toList();
+    }
+
+    private TransferReceiptEntity receiptOf(TransferIntentEntity intent, String targetAccountNumber) {
+        return shardRouter.onShardOf(targetAccountNumber, () -> transferReceiptRepository.findByIntentId(intent.getId()))
+                .orElseThrow();
+    }
+
+    private static TransactionRequest transfer(String source, String target, String amount) {
+        return new TransactionRequest(TransactionType.TRANSFER, source, new BigDecimal(amount), target);
+    }
+}
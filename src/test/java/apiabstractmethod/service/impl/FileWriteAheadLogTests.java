@@ -0,0 +1,64 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.service.WriteAheadLog.Entry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class FileWriteAheadLogTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversTheLatestBalancesAndIgnoresATornTail() throws Exception {
+        FileWriteAheadLog log = open();
+        List<CompletableFuture<Void>> appends = IntStream.rangeClosed(1, 1000)
+                .mapToObj(i -> log.append(new Entry("ACC1", i), new Entry("ACC2", -i)))
+                .toList();
+        appends.forEach(CompletableFuture::join);
+        log.close();
+
+        try (var files = Files.list(directory)) {
+            Path segment = files.sorted().reduce((first, second) -> second).orElseThrow();
+            Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+
+        FileWriteAheadLog reopened = open();
+        assertEquals(Map.of("ACC1", 1000L, "ACC2", -1000L), reopened.recover());
+        reopened.close();
+    }
+
+    @Test
+    void releasedSegmentsAreNotRecovered() throws Exception {
+        FileWriteAheadLog log = open();
+        log.append(new Entry("ACC1", 100)).join();
+        long checkpoint = log.checkpoint();
+        log.append(new Entry("ACC2", 200)).join();
+        log.release(checkpoint);
+        log.close();
+
+        FileWriteAheadLog reopened = open();
+        assertEquals(Map.of("ACC2", 200L), reopened.recover());
+        assertFalse(reopened.isFailed());
+        reopened.close();
+    }
+
+    private FileWriteAheadLog open() throws Exception {
+        return new FileWriteAheadLog(new SimpleMeterRegistry(), directory, DataSize.ofKilobytes(16),
+                Duration.ZERO, DataSize.ofKilobytes(4));
+    }
+}
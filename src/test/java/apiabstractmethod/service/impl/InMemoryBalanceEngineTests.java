@@ -0,0 +1,239 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.RateLimitExceededException;
+import apiabstractmethod.metrics.TransactionMetrics;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.TransactionHistoryEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.TransactionHistoryService;
+import apiabstractmethod.service.WriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InMemoryBalanceEngineTests {
+
+    private final DepositTransactionFactory deposit = new DepositTransactionFactory();
+    private final WithdrawalTransactionFactory withdrawal = new WithdrawalTransactionFactory();
+    private final TransferTransactionFactory transfer = new TransferTransactionFactory();
+    private final AccountRepository repository = mock(AccountRepository.class);
+    private final TransactionHistoryService transactionHistoryService = mock(TransactionHistoryService.class);
+    private final BalanceEventBus balanceEventBus = mock(BalanceEventBus.class);
+    private final InMemoryBalanceEngine engine = engine(100_000);
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findByAccountNumber("ACC1"))
+                .thenReturn(Optional.of(new AccountEntity(1L, "ACC1", "checking", new BigDecimal("1000.00"), "John Doe", 0L, 0L)));
+        when(repository.findByAccountNumber("ACC2"))
+                .thenReturn(Optional.of(new AccountEntity(2L, "ACC2", "savings", new BigDecimal("1000.00"), "Jane Doe", 0L, 0L)));
+    }
+
+    private InMemoryBalanceEngine engine(int maxPendingHistory) {
+        return engine(maxPendingHistory, Optional.empty());
+    }
+
+    private InMemoryBalanceEngine engine(int maxPendingHistory, Optional<WriteAheadLog> writeAheadLog) {
+        return engine(maxPendingHistory, writeAheadLog, Duration.ofMinutes(10), 100_000);
+    }
+
+    private InMemoryBalanceEngine engine(int maxPendingHistory, Optional<WriteAheadLog> writeAheadLog,
+                                         Duration idleEviction, int maxAccounts) {
+        return new InMemoryBalanceEngine(repository, mock(AccountCache.class),
+                new TransactionMetrics(new SimpleMeterRegistry(), List.of(deposit, withdrawal, transfer)),
+                mock(PlatformTransactionManager.class), writeAheadLog, balanceEventBus,
+                transactionHistoryService, Currency.getInstance("USD"), maxPendingHistory, Duration.ofMillis(10),
+                idleEviction, maxAccounts);
+    }
+
+    @Test
+    void concurrentTransactionsOnOneAccountAreNotLost() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 4000; i++) {
+            boolean isDeposit = i % 2 == 0;
+            executor.execute(() -> engine.apply(isDeposit ? deposit : withdrawal, "ACC1",
+                    isDeposit ? new BigDecimal("2.50") : new BigDecimal("1.00")));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(new BigDecimal("4000.00"), engine.currentBalance("ACC1").orElseThrow());
+    }
+
+    @Test
+    void concurrentOppositeTransfersKeepTheTotalBalance() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 4000; i++) {
+            boolean forward = i % 2 == 0;
+            executor.execute(() -> engine.applyTransfer(transfer, forward ? "ACC1" : "ACC2",
+                    forward ? "ACC2" : "ACC1", new BigDecimal("0.25")));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(new BigDecimal("1000.00"), engine.currentBalance("ACC1").orElseThrow());
+        assertEquals(new BigDecimal("1000.00"), engine.currentBalance("ACC2").orElseThrow());
+    }
+
+    @Test
+    void historyOfAnAccountSortsByTimeInTheOrderOfItsUpdates() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 2000; i++) {
+            executor.execute(() -> engine.apply(deposit, "ACC1", new BigDecimal("1.00")));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        engine.flush();
+
+        ArgumentCaptor<Collection<TransactionHistoryEntity>> records = ArgumentCaptor.captor();
+        verify(transactionHistoryService).recordAll(records.capture());
+        List<BigDecimal> balances = records.getValue().stream()
+                .sorted(Comparator.comparing(TransactionHistoryEntity::getOccurredAt))
+                .map(TransactionHistoryEntity::getBalanceAfter)
+                .toList();
+        for (int i = 0; i < balances.size(); i++) {
+            assertEquals(new BigDecimal("1001.00").add(BigDecimal.valueOf(i)), balances.get(i));
+        }
+    }
+
+    @Test
+    void rejectsTransactionsWhileTheHistoryBufferIsFullUntilTheFlushMakesRoom() {
+        InMemoryBalanceEngine bounded = engine(2);
+        bounded.apply(deposit, "ACC1", new BigDecimal("1.00"));
+        bounded.apply(deposit, "ACC1", new BigDecimal("1.00"));
+
+        assertThrows(RateLimitExceededException.class, () -> bounded.apply(deposit, "ACC1", new BigDecimal("1.00")));
+        assertThrows(RateLimitExceededException.class,
+                () -> bounded.applyTransfer(transfer, "ACC1", "ACC2", new BigDecimal("1.00")));
+        assertEquals(new BigDecimal("1002.00"), bounded.currentBalance("ACC1").orElseThrow());
+
+        bounded.flush();
+        bounded.applyTransfer(transfer, "ACC1", "ACC2", new BigDecimal("1.00"));
+        assertEquals(new BigDecimal("1001.00"), bounded.currentBalance("ACC1").orElseThrow());
+    }
+
+    @Test
+    void anOperationWhoseLogRecordIsNotDurableLeavesNoTrace() {
+        WriteAheadLog writeAheadLog = mock(WriteAheadLog.class);
+        when(writeAheadLog.append(any(WriteAheadLog.Entry[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Write-ahead log is unavailable")))
+                .thenThrow(new IllegalStateException("Write-ahead log is unavailable"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        InMemoryBalanceEngine durable = engine(100_000, Optional.of(writeAheadLog));
+
+        assertThrows(IllegalStateException.class, () -> durable.apply(deposit, "ACC1", new BigDecimal("1.00")));
+        assertThrows(IllegalStateException.class,
+                () -> durable.applyTransfer(transfer, "ACC1", "ACC2", new BigDecimal("1.00")));
+        assertEquals(new BigDecimal("1000.00"), durable.currentBalance("ACC1").orElseThrow());
+        assertEquals(new BigDecimal("1000.00"), durable.currentBalance("ACC2").orElseThrow());
+        verify(balanceEventBus, never()).publish(any(), any(Long.class));
+
+        durable.applyTransfer(transfer, "ACC1", "ACC2", new BigDecimal("1.00"));
+        assertEquals(new BigDecimal("999.00"), durable.currentBalance("ACC1").orElseThrow());
+        assertEquals(new BigDecimal("1001.00"), durable.currentBalance("ACC2").orElseThrow());
+    }
+
+    @Test
+    void transfersKeepRunningWhileTheFlushWaitsForTheLogCheckpoint() throws Exception {
+        WriteAheadLog writeAheadLog = mock(WriteAheadLog.class);
+        when(writeAheadLog.append(any(WriteAheadLog.Entry[].class))).thenReturn(CompletableFuture.completedFuture(null));
+        CountDownLatch checkpointing = new CountDownLatch(1);
+        CountDownLatch synced = new CountDownLatch(1);
+        when(writeAheadLog.checkpoint()).thenAnswer(invocation -> {
+            checkpointing.countDown();
+            synced.await(5, TimeUnit.SECONDS);
+            return 7L;
+        });
+        InMemoryBalanceEngine durable = engine(100_000, Optional.of(writeAheadLog));
+        durable.applyTransfer(transfer, "ACC1", "ACC2", new BigDecimal("1.00"));
+
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(durable::flush);
+        assertTrue(checkpointing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<AccountEntity> duringCheckpoint = CompletableFuture.supplyAsync(() ->
+                durable.applyTransfer(transfer, "ACC1", "ACC2", new BigDecimal("1.00")));
+
+        assertEquals(new BigDecimal("998.00"), duringCheckpoint.get(5, TimeUnit.SECONDS).getBalance());
+        synced.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        verify(repository).updateBalanceAndVersion(1L, new BigDecimal("998.00"), 2L);
+        verify(writeAheadLog).release(7L);
+    }
+
+    @Test
+    void aFlushWritesOnlyTheAccountsChangedSinceThePreviousOne() {
+        engine.apply(deposit, "ACC1", new BigDecimal("1.00"));
+        engine.flush();
+        engine.apply(deposit, "ACC2", new BigDecimal("1.00"));
+        engine.flush();
+        engine.flush();
+
+        verify(repository).updateBalanceAndVersion(1L, new BigDecimal("1001.00"), 1L);
+        verify(repository).updateBalanceAndVersion(2L, new BigDecimal("1001.00"), 1L);
+        verify(repository, times(2)).updateBalanceAndVersion(any(), any(), anyLong());
+    }
+
+    @Test
+    void dropsAnIdleAccountOnlyOnceItsBalanceIsWrittenAndLoadsItAgainWithItsVersion() {
+        InMemoryBalanceEngine evicting = engine(100_000, Optional.empty(), Duration.ZERO, 100_000);
+        evicting.apply(deposit, "ACC1", new BigDecimal("1.00"));
+        doThrow(new IllegalStateException("Database is down")).doAnswer(invocation -> {
+            when(repository.findByAccountNumber("ACC1")).thenReturn(Optional.of(new AccountEntity(1L, "ACC1", "checking",
+                    invocation.getArgument(1), "John Doe", invocation.getArgument(2), 0L)));
+            return 1;
+        }).when(repository).updateBalanceAndVersion(any(), any(), anyLong());
+
+        assertThrows(IllegalStateException.class, evicting::flush);
+        assertEquals(new BigDecimal("1001.00"), evicting.currentBalance("ACC1").orElseThrow());
+
+        evicting.flush();
+        assertEquals(Optional.empty(), evicting.currentBalance("ACC1"));
+
+        AccountEntity reloaded = evicting.apply(deposit, "ACC1", new BigDecimal("1.00"));
+        assertEquals(new BigDecimal("1002.00"), reloaded.getBalance());
+        verify(balanceEventBus).publish(any(), eq(2L));
+        verify(repository, times(2)).findByAccountNumber("ACC1");
+    }
+
+    @Test
+    void dropsTheLeastRecentlyCheckedAccountsBeyondTheMaximum() {
+        InMemoryBalanceEngine bounded = engine(100_000, Optional.empty(), Duration.ofMinutes(10), 1);
+        bounded.apply(deposit, "ACC1", new BigDecimal("1.00"));
+        bounded.apply(deposit, "ACC2", new BigDecimal("1.00"));
+
+        bounded.flush();
+
+        assertEquals(Optional.empty(), bounded.currentBalance("ACC1"));
+        assertEquals(new BigDecimal("1001.00"), bounded.currentBalance("ACC2").orElseThrow());
+    }
+}
@@ -0,0 +1,113 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.response.BalanceChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InProcessBalanceEventBusTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InProcessBalanceEventBus bus = new InProcessBalanceEventBus(meterRegistry, 2);
+    private final List<BalanceChangedEvent> received = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstDelivered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bus.shutdown();
+    }
+
+    @Test
+    void coalescesPendingChangesToTheNewestVersion() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(2);
+        bus.subscribe(Set.of("ACC1"), event -> {
+            blockOnFirst(event);
+            delivered.countDown();
+        }, closed::countDown);
+
+        bus.publish(account("ACC1", "110.00"), 1);
+        assertTrue(firstDelivered.await(5, TimeUnit.SECONDS));
+        bus.publish(account("ACC1", "130.00"), 3);
+        bus.publish(account("ACC1", "120.00"), 2);
+        release.countDown();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L, 3L), received.stream().map(BalanceChangedEvent::getVersion).toList());
+        assertEquals(new BigDecimal("130.00"), received.get(1).getBalance());
+    }
+
+    @Test
+    void neverDeliversAChangeOlderThanOneAlreadyPublished() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(2);
+        bus.subscribe(Set.of(), event -> {
+            received.add(event);
+            delivered.countDown();
+        }, closed::countDown);
+
+        bus.publish(account("ACC1", "120.00"), 2);
+        bus.publish(account("ACC1", "110.00"), 1);
+        bus.publish(account("ACC2", "50.00"), 7);
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("ACC1:2", "ACC2:7"), received.stream()
+                .map(event -> event.getAccountNumber() + ":" + event.getVersion())
+                .toList());
+    }
+
+    @Test
+    void dropsASubscriberThatFallsFurtherBehindThanItsBuffer() throws InterruptedException {
+        bus.subscribe(Set.of(), this::blockOnFirst, closed::countDown);
+
+        bus.publish(account("ACC1", "10.00"), 1);
+        assertTrue(firstDelivered.await(5, TimeUnit.SECONDS));
+        bus.publish(account("ACC2", "20.00"), 1);
+        bus.publish(account("ACC3", "30.00"), 1);
+        bus.publish(account("ACC4", "40.00"), 1);
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("bank.events.subscribers.dropped").counter().count());
+        assertEquals(0.0, meterRegistry.get("bank.events.subscribers").gauge().value());
+    }
+
+    @Test
+    void dropsAListenerThatThrows() throws InterruptedException {
+        bus.subscribe(Set.of(), event -> {
+            throw new IllegalStateException("Client went away");
+        }, closed::countDown);
+
+        bus.publish(account("ACC1", "10.00"), 1);
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.get("bank.events.subscribers").gauge().value());
+    }
+
+    private void blockOnFirst(BalanceChangedEvent event) {
+        received.add(event);
+        if (firstDelivered.getCount() > 0) {
+            firstDelivered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static AccountEntity account(String accountNumber, String balance) {
+        return new AccountEntity(null, accountNumber, "SAVINGS", new BigDecimal(balance), "Owner", 0L, 0L);
+    }
+}
@@ -0,0 +1,93 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.model.entity.LedgerEntryEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.repository.LedgerEntryRepository;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.service.LedgerService;
+import apiabstractmethod.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger",
+        "bank.ledger.enabled=true",
+        "bank.ledger.projection-interval-ms=3600000"})
+class LedgerServiceImplTests {
+
+    private static final int THREADS = 4;
+    private static final int OPERATIONS_PER_THREAD = 25;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Test
+    void concurrentAppendsTakeGapFreeSequencesAndTheProjectionConverges() throws Exception {
+        accountRepository.save(new AccountEntity(null, "LEDGER1", "SAVINGS", new BigDecimal("1000.00"), "Owner", null, 0L));
+        accountRepository.save(new AccountEntity(null, "LEDGER2", "SAVINGS", new BigDecimal("1000.00"), "Owner", null, 0L));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                boolean forward = thread % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        transactionService.processTransaction(new TransactionRequest(TransactionType.DEPOSIT,
+                                "LEDGER1", new BigDecimal("1.00"), null));
+                        transactionService.processTransaction(new TransactionRequest(TransactionType.TRANSFER,
+                                forward ? "LEDGER1" : "LEDGER2", new BigDecimal("2.00"), forward ? "LEDGER2" : "LEDGER1"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int operations = THREADS * OPERATIONS_PER_THREAD;
+        assertEquals(LongStream.rangeClosed(1, 2L * operations).boxed().toList(), sequencesOf("LEDGER1"));
+        assertEquals(LongStream.rangeClosed(1, operations).boxed().toList(), sequencesOf("LEDGER2"));
+
+        ledgerService.project();
+
+        AccountEntity first = accountRepository.findByAccountNumber("LEDGER1").orElseThrow();
+        AccountEntity second = accountRepository.findByAccountNumber("LEDGER2").orElseThrow();
+        assertEquals(2L * operations, first.getLedgerSequence());
+        assertEquals(operations, second.getLedgerSequence());
+        assertEquals(0, new BigDecimal("1100.00").compareTo(first.getBalance()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(second.getBalance()));
+    }
+
+    private List<Long> sequencesOf(String accountNumber) {
+        return ledgerEntryRepository.findAll().stream()
+                .filter(entry -> entry.getAccountNumber().equals(accountNumber))
+                .map(LedgerEntryEntity::getSequence)
+                .sorted()
+                .toList();
+    }
+}
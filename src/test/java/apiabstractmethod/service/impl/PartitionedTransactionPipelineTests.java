@@ -0,0 +1,144 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.RateLimitExceededException;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.TransactionHistoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PartitionedTransactionPipelineTests {
+
+    private final DepositTransactionFactory deposit = new DepositTransactionFactory();
+    private final AccountRepository repository = mock(AccountRepository.class);
+    private final AccountCache accountCache = mock(AccountCache.class);
+    private final TransactionHistoryService transactionHistoryService = mock(TransactionHistoryService.class);
+    private final AccountEntity stored = new AccountEntity(1L, "ACC1", "checking", new BigDecimal("100.00"), "John Doe", 0L, 0L);
+    private PartitionedTransactionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        when(accountCache.get("ACC1")).thenAnswer(invocation -> Optional.of(copyOfStored()));
+        when(repository.updateBalanceIfVersion(anyLong(), any(), anyLong())).thenAnswer(invocation -> {
+            stored.setBalance(invocation.getArgument(1));
+            return 1;
+        });
+        pipeline = new PartitionedTransactionPipeline(repository, accountCache, mock(BalanceEventBus.class),
+                transactionHistoryService, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                1, 2, 16, Duration.ofMillis(50), 3, 1, false);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void shutdownCommitsWhatIsQueuedAndRejectsLaterSubmissions() throws Exception {
+        List<CompletableFuture<AccountEntity>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(pipeline.submit(deposit, "ACC1", new BigDecimal("1.00")));
+        }
+
+        pipeline.shutdown();
+
+        for (CompletableFuture<AccountEntity> future : futures) {
+            assertTrue(future.isDone());
+            future.get();
+        }
+        assertEquals(new BigDecimal("110.00"), stored.getBalance());
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(deposit, "ACC1", new BigDecimal("1.00")));
+    }
+
+    @Test
+    void aWriterFailingWithAnErrorFailsItsBatchAndKeepsGoing() throws Exception {
+        doThrow(new OutOfMemoryError("Simulated")).doNothing()
+                .when(transactionHistoryService).record(any(), anyString(), any());
+
+        CompletableFuture<AccountEntity> failed = pipeline.submit(deposit, "ACC1", new BigDecimal("1.00"));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OutOfMemoryError.class, error.getCause());
+
+        AccountEntity committed = pipeline.submit(deposit, "ACC1", new BigDecimal("1.00")).get(5, TimeUnit.SECONDS);
+        assertEquals(new BigDecimal("101.00"), committed.getBalance());
+    }
+
+    @Test
+    void reRunsABatchThatLostItsVersionCheck() throws Exception {
+        doReturn(0).doAnswer(invocation -> {
+            stored.setBalance(invocation.getArgument(1));
+            return 1;
+        }).when(repository).updateBalanceIfVersion(anyLong(), any(), anyLong());
+
+        AccountEntity committed = pipeline.submit(deposit, "ACC1", new BigDecimal("1.00")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(new BigDecimal("101.00"), committed.getBalance());
+        verify(repository, times(2)).updateBalanceIfVersion(anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void failsTheBatchOnceEveryAttemptLostItsVersionCheck() {
+        doReturn(0).when(repository).updateBalanceIfVersion(anyLong(), any(), anyLong());
+
+        CompletableFuture<AccountEntity> failed = pipeline.submit(deposit, "ACC1", new BigDecimal("1.00"));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OptimisticLockingFailureException.class, error.getCause());
+        verify(repository, times(3)).updateBalanceIfVersion(anyLong(), any(), anyLong());
+        assertEquals(new BigDecimal("100.00"), stored.getBalance());
+    }
+
+    @Test
+    void rejectsATransactionThatFindsTheQueueFullForTheSubmitTimeout() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accountCache.get("ACC1")).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(copyOfStored());
+        });
+
+        CompletableFuture<AccountEntity> inFlight = pipeline.submit(deposit, "ACC1", new BigDecimal("1.00"));
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        pipeline.submit(deposit, "ACC1", new BigDecimal("1.00"));
+        pipeline.submit(deposit, "ACC1", new BigDecimal("1.00"));
+
+        assertThrows(RateLimitExceededException.class, () -> pipeline.submit(deposit, "ACC1", new BigDecimal("1.00")));
+        release.countDown();
+        assertEquals(new BigDecimal("101.00"), inFlight.get(5, TimeUnit.SECONDS).getBalance());
+    }
+
+    private AccountEntity copyOfStored() {
+        return stored.copyWithBalance(stored.getBalance());
+    }
+}
@@ -0,0 +1,92 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.mapper.AccountMapper;
+import apiabstractmethod.metrics.TransactionMetrics;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountRow;
+import apiabstractmethod.repository.ReactiveAccountRepository;
+import apiabstractmethod.repository.ReactiveTransactionHistoryRepository;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.TransactionFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveTransactionServiceImplTests {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ReactiveAccountRepository accountRepository = mock(ReactiveAccountRepository.class);
+    private final ReactiveTransactionHistoryRepository transactionHistoryRepository = mock(ReactiveTransactionHistoryRepository.class);
+    private final TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger reads = new AtomicInteger();
+    private ReactiveTransactionServiceImpl transactionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        List<TransactionFactory> factories = List.of(new DepositTransactionFactory());
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionHistoryRepository.insert(any(), any(), any(), any(), any())).thenReturn(Mono.just(1));
+        when(accountRepository.findByAccountNumber("ACC1")).thenReturn(
+                Mono.fromSupplier(() -> {
+                    reads.incrementAndGet();
+                    return new AccountRow(1L, "ACC1", "checking", new BigDecimal("100.00"), "John Doe", 4L, 0L);
+                }));
+        transactionService = new ReactiveTransactionServiceImpl(accountRepository, transactionHistoryRepository,
+                new AccountMapper(), transactionalOperator, mock(BalanceEventBus.class), factories,
+                meterRegistry, new TransactionMetrics(meterRegistry, factories), MAX_ATTEMPTS, 1);
+    }
+
+    @Test
+    void rereadsAndRetriesAfterLosingTheVersionCheck() {
+        when(accountRepository.updateBalanceIfVersion(1L, new BigDecimal("110.00"), 4L))
+                .thenReturn(Mono.just(0), Mono.just(1));
+
+        TransactionResponse response = transactionService.processTransaction(deposit()).block();
+
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(new BigDecimal("110.00"), response.getNewBalance());
+        assertEquals(1, meterRegistry.counter("bank.transactions.optimistic.retries").count());
+        assertEquals(0, meterRegistry.counter("bank.transactions.optimistic.retries.exhausted").count());
+        assertEquals(2, reads.get());
+        verify(transactionHistoryRepository, times(1)).insert(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void givesUpAfterTheConfiguredNumberOfAttempts() {
+        when(accountRepository.updateBalanceIfVersion(any(), any(), anyLong())).thenReturn(Mono.just(0));
+
+        Mono<TransactionResponse> response = transactionService.processTransaction(deposit());
+
+        assertThrows(OptimisticLockingFailureException.class, response::block);
+        assertEquals(MAX_ATTEMPTS - 1, meterRegistry.counter("bank.transactions.optimistic.retries").count());
+        assertEquals(1, meterRegistry.counter("bank.transactions.optimistic.retries.exhausted").count());
+        assertEquals(MAX_ATTEMPTS, reads.get());
+        verify(transactionHistoryRepository, never()).insert(any(), any(), any(), any(), any());
+    }
+
+    private static TransactionRequest deposit() {
+        return new TransactionRequest(TransactionType.DEPOSIT, "ACC1", new BigDecimal("10.00"), null);
+    }
+}
@@ -0,0 +1,67 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBucketRateLimiterTests {
+
+    private final AtomicLong now = new AtomicLong();
+
+    // 10 per second with a burst of 2 per account, 100 per second with a burst of 5 per client
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new SimpleMeterRegistry(),
+            10, 2, 100, 5, 0, 0, 100, now::get);
+
+    @Test
+    void rejectsOnceTheBurstIsUsedAndRefillsOverTime() {
+        limiter.acquire("client", List.of("ACC1"));
+        limiter.acquire("client", List.of("ACC1"));
+
+        RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire("client", List.of("ACC1")));
+        assertEquals(Duration.ofMillis(100), rejected.getRetryAfter());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        limiter.acquire("client", List.of("ACC1"));
+    }
+
+    @Test
+    void rejectionOnAnAccountGivesBackTheClientTokens() {
+        limiter.acquire("client", List.of("ACC1", "ACC1"));
+        for (int i = 0; i < 10; i++) {
+            assertThrows(RateLimitExceededException.class, () -> limiter.acquire("client", List.of("ACC1")));
+        }
+
+        // Without the refunds the rejected requests would have emptied the client bucket
+        limiter.acquire("client", List.of("ACC2", "ACC3", "ACC4"));
+    }
+
+    @Test
+    void chargesABatchOneTokenPerTransaction() {
+        limiter.acquire("client", List.of("ACC1", "ACC2", "ACC3", "ACC4"));
+
+        RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire("client", List.of("ACC5", "ACC6")));
+        assertEquals(Duration.ofMillis(10), rejected.getRetryAfter());
+        limiter.acquire("other", List.of("ACC5", "ACC6"));
+    }
+
+    @Test
+    void rejectsABatchLargerThanABurstAsInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> limiter.acquire("client", List.of("ACC1", "ACC2", "ACC3", "ACC4", "ACC5", "ACC6")));
+        assertThrows(IllegalArgumentException.class,
+                () -> limiter.acquire("client", List.of("ACC1", "ACC1", "ACC1")));
+
+        // Neither batch took any tokens
+        limiter.acquire("client", List.of("ACC1", "ACC1", "ACC2", "ACC2", "ACC3"));
+    }
+}
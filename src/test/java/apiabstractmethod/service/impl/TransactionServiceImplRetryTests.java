@@ -0,0 +1,98 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.metrics.TransactionMetrics;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import apiabstractmethod.service.AccountCache;
+import apiabstractmethod.service.BalanceEventBus;
+import apiabstractmethod.service.ShardRouter;
+import apiabstractmethod.service.TransactionFactory;
+import apiabstractmethod.service.TransactionHistoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionServiceImplRetryTests {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final AccountCache accountCache = mock(AccountCache.class);
+    private final ShardRouter shardRouter = mock(ShardRouter.class);
+    private final TransactionHistoryService transactionHistoryService = mock(TransactionHistoryService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger reads = new AtomicInteger();
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        List<TransactionFactory> factories = List.of(new DepositTransactionFactory());
+        when(shardRouter.shardCount()).thenReturn(1);
+        when(shardRouter.onShardOf(anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(accountCache.get("ACC1")).thenAnswer(invocation -> {
+            reads.incrementAndGet();
+            return Optional.of(new AccountEntity(1L, "ACC1", "checking", new BigDecimal("100.00"), "John Doe", 4L, 0L));
+        });
+        transactionService = new TransactionServiceImpl(accountRepository, accountCache, shardRouter, factories,
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), mock(BalanceEventBus.class),
+                transactionHistoryService, mock(PlatformTransactionManager.class),
+                meterRegistry, new TransactionMetrics(meterRegistry, factories), MAX_ATTEMPTS, 1);
+    }
+
+    @Test
+    void rereadsAndRetriesAfterLosingTheVersionCheck() {
+        when(accountRepository.updateBalanceIfVersion(1L, new BigDecimal("110.00"), 4L)).thenReturn(0, 1);
+
+        TransactionResponse response = transactionService.processTransaction(deposit());
+
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(new BigDecimal("110.00"), response.getNewBalance());
+        assertEquals(1, meterRegistry.counter("bank.transactions.optimistic.retries").count());
+        assertEquals(0, meterRegistry.counter("bank.transactions.optimistic.retries.exhausted").count());
+        assertEquals(2, reads.get());
+        verify(accountCache, times(1)).evict("ACC1");
+        verify(transactionHistoryService, times(1)).record(any(), eq("DEPOSIT"), any());
+    }
+
+    @Test
+    void givesUpAfterTheConfiguredNumberOfAttempts() {
+        when(accountRepository.updateBalanceIfVersion(any(), any(), anyLong())).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionService.processTransaction(deposit()));
+
+        assertEquals(MAX_ATTEMPTS - 1, meterRegistry.counter("bank.transactions.optimistic.retries").count());
+        assertEquals(1, meterRegistry.counter("bank.transactions.optimistic.retries.exhausted").count());
+        assertEquals(MAX_ATTEMPTS, reads.get());
+        verify(accountRepository, times(MAX_ATTEMPTS)).updateBalanceIfVersion(any(), any(), anyLong());
+        verify(transactionHistoryService, never()).record(any(), any(), any());
+    }
+
+    private static TransactionRequest deposit() {
+        return new TransactionRequest(TransactionType.DEPOSIT, "ACC1", new BigDecimal("10.00"), null);
+    }
+}
@@ -0,0 +1,172 @@
+package apiabstractmethod.service.impl;
+
+import apiabstractmethod.exception.InsufficientFundsException;
+import apiabstractmethod.model.TransactionType;
+import apiabstractmethod.model.entity.AccountEntity;
+import apiabstractmethod.repository.AccountRepository;
+import apiabstractmethod.request.TransactionRequest;
+import apiabstractmethod.response.TransactionResponse;
+import apiabstractmethod.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transactionbatch",
+        "bank.transactions.retry.max-attempts=32",
+        "bank.transactions.retry.backoff-ms=1"
+})
+class TransactionServiceImplTests {
+
+    private static final int ACCOUNTS = 1200;
+    private static final int THREADS = 8;
+    private static final int DEPOSITS_PER_THREAD = 25;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void aBatchSpanningSeveralLookupChunksAppliesEachRequestAndFailsOnlyTheInvalidOnes() {
+        accountRepository.saveAll(IntStream.range(0, ACCOUNTS)
+                .mapToObj(i -> new AccountEntity(null, "BATCH" + i, "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L))
+                .toList());
+
+        List<TransactionRequest> requests = new ArrayList<>();
+        IntStream.range(0, ACCOUNTS).forEach(i -> requests.add(request(TransactionType.DEPOSIT, "BATCH" + i, "1.00", null)));
+        requests.add(request(TransactionType.WITHDRAWAL, "BATCH1", "500.00", null));
+        requests.add(request(TransactionType.TRANSFER, "BATCH0", "50.00", "BATCH1150"));
+        requests.add(request(TransactionType.DEPOSIT, "MISSING", "1.00", null));
+
+        List<TransactionResponse> responses = transactionService.processBatch(requests);
+
+        assertEquals(requests.size(), responses.size());
+        assertEquals(ACCOUNTS + 1, responses.stream().filter(response -> response.getStatus().equals("SUCCESS")).count());
+        assertEquals("FAILED", responses.get(ACCOUNTS).getStatus());
+        assertEquals("SUCCESS", responses.get(ACCOUNTS + 1).getStatus());
+        assertEquals(new BigDecimal("51.00"), responses.get(ACCOUNTS + 1).getNewBalance());
+        assertEquals("FAILED", responses.get(ACCOUNTS + 2).getStatus());
+
+        assertEquals(new BigDecimal("51.00"), balanceOf("BATCH0"));
+        assertEquals(new BigDecimal("101.00"), balanceOf("BATCH1"));
+        assertEquals(new BigDecimal("151.00"), balanceOf("BATCH1150"));
+        assertEquals(new BigDecimal("101.00"), balanceOf("BATCH" + (ACCOUNTS - 1)));
+    }
+
+    @Test
+    void concurrentDepositsToOneAccountAllLandThroughTheVersionedUpdate() throws Exception {
+        accountRepository.save(new AccountEntity(null, "CONTENDED", "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L));
+        double exhaustedBefore = meterRegistry.counter("bank.transactions.optimistic.retries.exhausted").count();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < DEPOSITS_PER_THREAD; i++) {
+                        transactionService.processTransaction(request(TransactionType.DEPOSIT, "CONTENDED", "1.00", null));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        AccountEntity account = accountRepository.findByAccountNumber("CONTENDED").orElseThrow();
+        assertEquals(new BigDecimal("100.00").add(new BigDecimal(THREADS * DEPOSITS_PER_THREAD)).setScale(2), account.getBalance());
+        assertEquals((long) THREADS * DEPOSITS_PER_THREAD, account.getVersion());
+        assertEquals(exhaustedBefore, meterRegistry.counter("bank.transactions.optimistic.retries.exhausted").count());
+    }
+
+    @Test
+    void opposingTransfersBetweenTwoAccountsNeitherDeadlockNorLoseAnUpdate() throws Exception {
+        accountRepository.saveAll(List.of(
+                new AccountEntity(null, "LEFT", "SAVINGS", new BigDecimal("1000.00"), "Owner", null, 0L),
+                new AccountEntity(null, "RIGHT", "SAVINGS", new BigDecimal("1000.00"), "Owner", null, 0L)));
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String source = t % 2 == 0 ? "LEFT" : "RIGHT";
+                String target = t % 2 == 0 ? "RIGHT" : "LEFT";
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < DEPOSITS_PER_THREAD; i++) {
+                        transactionService.processTransaction(request(TransactionType.TRANSFER, source, "1.00", target));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        AccountEntity left = accountRepository.findByAccountNumber("LEFT").orElseThrow();
+        AccountEntity right = accountRepository.findByAccountNumber("RIGHT").orElseThrow();
+        assertEquals(new BigDecimal("1000.00"), left.getBalance());
+        assertEquals(new BigDecimal("1000.00"), right.getBalance());
+        assertEquals((long) THREADS * DEPOSITS_PER_THREAD, left.getVersion());
+        assertEquals((long) THREADS * DEPOSITS_PER_THREAD, right.getVersion());
+    }
+
+    @Test
+    void aTransferWithInsufficientFundsChangesNeitherAccount() {
+        accountRepository.saveAll(List.of(
+                new AccountEntity(null, "POOR", "SAVINGS", new BigDecimal("10.00"), "Owner", null, 0L),
+                new AccountEntity(null, "PAYEE", "SAVINGS", new BigDecimal("100.00"), "Owner", null, 0L)));
+
+        assertThrows(InsufficientFundsException.class, () ->
+                transactionService.processTransaction(request(TransactionType.TRANSFER, "POOR", "10.01", "PAYEE")));
+
+        AccountEntity source = accountRepository.findByAccountNumber("POOR").orElseThrow();
+        AccountEntity target = accountRepository.findByAccountNumber("PAYEE").orElseThrow();
+        assertEquals(new BigDecimal("10.00"), source.getBalance());
+        assertEquals(new BigDecimal("100.00"), target.getBalance());
+        assertEquals(0L, source.getVersion());
+        assertEquals(0L, target.getVersion());
+
+        TransactionResponse response = transactionService.processTransaction(request(TransactionType.TRANSFER, "POOR", "10.00", "PAYEE"));
+        assertEquals(new BigDecimal("0.00"), response.getNewBalance());
+        assertEquals(new BigDecimal("110.00"), balanceOf("PAYEE"));
+    }
+
+    private BigDecimal balanceOf(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+    }
+
+    private static TransactionRequest request(TransactionType type, String accountNumber, String amount, String target) {
+        return new TransactionRequest(type, accountNumber, new BigDecimal(amount), target);
+    }
+}